@@ -0,0 +1,88 @@
+package com.fizzed.jne.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Generates the jars of natives (and filler) the benchmarks run against.
+ */
+public class BenchmarkJars {
+
+    /**
+     * Parses a size such as "1KB", "1MB", or "200MB".
+     */
+    static public int parseSize(String size) {
+        final String s = size.trim().toUpperCase();
+        if (s.endsWith("KB")) {
+            return Integer.parseInt(s.substring(0, s.length() - 2)) * 1024;
+        } else if (s.endsWith("MB")) {
+            return Integer.parseInt(s.substring(0, s.length() - 2)) * 1024 * 1024;
+        }
+        return Integer.parseInt(s);
+    }
+
+    /**
+     * Bytes that deflate roughly in half, like a typical native library (random bytes wouldn't deflate at all).
+     */
+    static public byte[] content(int size, long seed) {
+        final Random random = new Random(seed);
+        final byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte)(random.nextInt(16) + (i % 64 == 0 ? random.nextInt(240) : 0));
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a jar of the entries (by their resource path, e.g. "jne/linux/x64/libfoo.so").
+     *
+     * @param stored true to store entries uncompressed, false to deflate them
+     */
+    static public File writeJar(File jarFile, Map<String, byte[]> entries, boolean stored) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION, "1.0.0");
+
+        try (OutputStream out = Files.newOutputStream(jarFile.toPath());
+             JarOutputStream jar = new JarOutputStream(out, manifest)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                final byte[] bytes = entry.getValue();
+                final JarEntry jarEntry = new JarEntry(entry.getKey());
+                if (stored) {
+                    final CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    jarEntry.setMethod(ZipEntry.STORED);
+                    jarEntry.setSize(bytes.length);
+                    jarEntry.setCompressedSize(bytes.length);
+                    jarEntry.setCrc(crc.getValue());
+                }
+                jar.putNextEntry(jarEntry);
+                jar.write(bytes);
+                jar.closeEntry();
+            }
+        }
+
+        return jarFile;
+    }
+
+    static public void deleteRecursively(File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteRecursively(f);
+            }
+        }
+        file.delete();
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.NativeTarget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cold extraction and warm re-validation (the version hash check of a previously extracted file) of resources of
+ * various sizes, stored or deflated in the jar, from 1 or 4 threads against the same or different resources. The cold
+ * extraction of the same resource by 4 threads races them from a start gate inside each invocation (so they contend
+ * on the same file lock), and measures until all 4 have the file.
+ *
+ * java -jar target/benchmarks.jar ExtractBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ExtractBenchmark {
+
+    static final int RESOURCES = 4;
+
+    @Param({ "1KB", "1MB", "200MB" })
+    public String size;
+
+    @Param({ "stored", "deflated" })
+    public String compression;
+
+    File dir;
+    File extractDir;
+    IsolatedJne jne;
+    Object options;
+    String[] names;
+    ExecutorService contenders;
+    final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        this.dir = Files.createTempDirectory("jne-bench-extract").toFile();
+        this.extractDir = new File(this.dir, "extracted");
+
+        // every resource has the same content (it's the number of files that matters), at the path JNE tries first
+        final byte[] content = BenchmarkJars.content(BenchmarkJars.parseSize(this.size), 1L);
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        this.names = new String[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) {
+            this.names[i] = "bench-" + i + ".bin";
+            final String resourcePath = NativeTarget.detect().resolveResourcePaths("/jne", this.names[i]).get(0);
+            entries.put(resourcePath.substring(1), content);
+        }
+        final File jar = BenchmarkJars.writeJar(new File(this.dir, "natives.jar"), entries, this.compression.equals("stored"));
+
+        this.jne = new IsolatedJne(Collections.singletonList(jar));
+        this.options = this.jne.newOptions(this.extractDir);
+
+        // extracted once, so the warm benchmarks only re-validate
+        for (String name : this.names) {
+            this.jne.findFile(name, this.options);
+        }
+
+        this.contenders = Executors.newFixedThreadPool(RESOURCES, r -> {
+            final Thread thread = new Thread(r, "bench-contender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.contenders.shutdownNow();
+        this.jne.close();
+        BenchmarkJars.deleteRecursively(this.dir);
+    }
+
+    /**
+     * A resource per thread (as long as there are no more threads than resources).
+     */
+    @State(Scope.Thread)
+    public static class ThreadResource {
+        String name;
+        File file;
+
+        @Setup(Level.Trial)
+        public void setup(ExtractBenchmark benchmark) {
+            this.name = benchmark.names[benchmark.threadCounter.getAndIncrement() % RESOURCES];
+            this.file = new File(benchmark.extractDir, this.name);
+        }
+    }
+
+    /**
+     * A resource per thread, deleted before every invocation, so it must be extracted again.
+     */
+    @State(Scope.Thread)
+    public static class ColdThreadResource extends ThreadResource {
+        @Setup(Level.Invocation)
+        public void delete() {
+            this.file.delete();
+            new File(this.file.getAbsolutePath() + ".hash").delete();
+        }
+    }
+
+    /**
+     * The first resource, deleted before every invocation, so it must be extracted again.
+     */
+    @State(Scope.Thread)
+    public static class ColdSameResource {
+        File file;
+
+        @Setup(Level.Trial)
+        public void setup(ExtractBenchmark benchmark) {
+            this.file = new File(benchmark.extractDir, benchmark.names[0]);
+        }
+
+        @Setup(Level.Invocation)
+        public void delete() {
+            this.file.delete();
+            new File(this.file.getAbsolutePath() + ".hash").delete();
+        }
+    }
+
+    @Benchmark
+    public File coldExtract(ColdThreadResource resource) throws Throwable {
+        return this.jne.findFile(resource.name, this.options);
+    }
+
+    @Benchmark
+    @Threads(RESOURCES)
+    public File coldExtractDifferent4Threads(ColdThreadResource resource) throws Throwable {
+        return this.jne.findFile(resource.name, this.options);
+    }
+
+    @Benchmark
+    public File coldExtractSame4Threads(ColdSameResource resource) throws Throwable {
+        // all released at once, so they race to extract the same (deleted) file
+        final CountDownLatch gate = new CountDownLatch(1);
+        final Callable<File> contender = () -> {
+            gate.await();
+            try {
+                return this.jne.findFile(this.names[0], this.options);
+            } catch (Throwable t) {
+                throw new Exception(t);
+            }
+        };
+        final Future<?>[] futures = new Future<?>[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) {
+            futures[i] = this.contenders.submit(contender);
+        }
+        gate.countDown();
+        File file = null;
+        for (Future<?> future : futures) {
+            file = (File)future.get();
+        }
+        return file;
+    }
+
+    @Benchmark
+    public File warmRevalidate() throws Throwable {
+        return this.jne.findFile(this.names[0], this.options);
+    }
+
+    @Benchmark
+    @Threads(RESOURCES)
+    public File warmRevalidateSame4Threads() throws Throwable {
+        return this.jne.findFile(this.names[0], this.options);
+    }
+
+    @Benchmark
+    @Threads(RESOURCES)
+    public File warmRevalidateDifferent4Threads(ThreadResource resource) throws Throwable {
+        return this.jne.findFile(resource.name, this.options);
+    }
+
+}
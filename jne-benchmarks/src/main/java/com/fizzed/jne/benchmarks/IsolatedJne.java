@@ -0,0 +1,73 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.JNE;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A copy of JNE loaded in its own classloader along with generated jars, since JNE finds resources via its own
+ * classloader (and its statics, such as the temp dir, should be fresh for each trial). Calls go through method handles,
+ * which cost next to nothing next to a lookup.
+ */
+public class IsolatedJne implements AutoCloseable {
+
+    private final URLClassLoader classLoader;
+    private final Class<?> optionsClass;
+    private final MethodHandle findFile;
+    private final MethodHandle findLibrary;
+
+    public IsolatedJne(List<File> jars) throws Exception {
+        final List<URL> urls = new ArrayList<>();
+        // the jar (or dir) JNE itself (and slf4j) were loaded from, e.g. the shaded benchmarks.jar
+        urls.add(JNE.class.getProtectionDomain().getCodeSource().getLocation());
+        final URL slf4jLocation = org.slf4j.LoggerFactory.class.getProtectionDomain().getCodeSource().getLocation();
+        if (!urls.contains(slf4jLocation)) {
+            urls.add(slf4jLocation);
+        }
+        for (File jar : jars) {
+            urls.add(jar.toURI().toURL());
+        }
+
+        // the parent of the system classloader, so JNE is NOT found (and shared) via the app classpath
+        this.classLoader = new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getSystemClassLoader().getParent());
+
+        final Class<?> jneClass = this.classLoader.loadClass(JNE.class.getName());
+        this.optionsClass = this.classLoader.loadClass("com.fizzed.jne.Options");
+
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        this.findFile = lookup.findStatic(jneClass, "findFile", MethodType.methodType(File.class, String.class, this.optionsClass));
+        this.findLibrary = lookup.findStatic(jneClass, "findLibrary", MethodType.methodType(File.class, String.class, this.optionsClass));
+    }
+
+    /**
+     * Creates options of this copy of JNE that extract to the dir, and keep what they extract (so it can be
+     * re-validated).
+     */
+    public Object newOptions(File extractDir) throws Exception {
+        final Object options = this.optionsClass.getConstructor().newInstance();
+        this.optionsClass.getMethod("setExtractDir", File.class).invoke(options, extractDir);
+        this.optionsClass.getMethod("setCleanupExtracted", boolean.class).invoke(options, false);
+        return options;
+    }
+
+    public File findFile(String name, Object options) throws Throwable {
+        return (File)this.findFile.invoke(name, options);
+    }
+
+    public File findLibrary(String name, Object options) throws Throwable {
+        return (File)this.findLibrary.invoke(name, options);
+    }
+
+    @Override
+    public void close() throws Exception {
+        this.classLoader.close();
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.JavaHome;
+import com.fizzed.jne.JavaHomes;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The cost of detecting java homes in a huge toolchain dir (like those of build agents), of 5, 50 or 500 JDKs cloned
+ * from the mock JDKs of jne's tests (including a few that aren't valid JDKs, as real dirs have). Without release
+ * files, every JDK's bin/java (a script that prints what "java -version" would) is spawned to get its version, so
+ * the number of detects and spawns are reported alongside the time (spawns / detects is the spawns per op).
+ *
+ * The toolchain dir is searched with JavaHomes.detect(searchDirs, provider), the same walk JavaHomes.detect() does of
+ * e.g. /usr/lib/jvm, with a provider that counts the "java -version" executions it delegates. The scripts need a posix
+ * shell.
+ *
+ * java -jar target/benchmarks.jar JavaHomesBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@State(Scope.Benchmark)
+public class JavaHomesBenchmark {
+
+    @Param({ "5", "50", "500" })
+    public int jdks;
+
+    @Param({ "true", "false" })
+    public boolean releaseFiles;
+
+    File dir;
+    Path toolchainDir;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    static public class Spawns {
+
+        public long detects;
+        public long spawns;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.detects = 0;
+            this.spawns = 0;
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.dir = Files.createTempDirectory("jne-bench-javahomes").toFile();
+        final Path mockJdksDir = TestResources.copy("mockjdks", new File(this.dir, "mockjdks").toPath());
+        this.toolchainDir = new File(this.dir, "toolchains").toPath();
+        Files.createDirectories(this.toolchainDir);
+
+        final List<Path> mockJdks = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(mockJdksDir)) {
+            paths.filter(Files::isDirectory).sorted().forEach(mockJdks::add);
+        }
+
+        for (int i = 0; i < this.jdks; i++) {
+            final Path mockJdk = mockJdks.get(i % mockJdks.size());
+            final Path jdk = this.toolchainDir.resolve(String.format("%s-%03d", mockJdk.getFileName(), i));
+            copyTree(mockJdk, jdk);
+
+            final Path releaseFile = jdk.resolve("release");
+            if (!this.releaseFiles && Files.exists(releaseFile)) {
+                // what "java -version" would print instead
+                final Map<String, String> release = JavaHomes.readReleaseProperties(releaseFile);
+                Files.delete(releaseFile);
+                final Path javaExe = jdk.resolve("bin").resolve("java");
+                if (Files.exists(javaExe)) {
+                    writeJavaScript(javaExe, release);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkJars.deleteRecursively(this.dir);
+    }
+
+    @Benchmark
+    public List<JavaHome> detect(Spawns spawns) throws Exception {
+        final JavaHomes.ReleasePropertiesProvider spawning = new JavaHomes.ReleasePropertiesProvider() {
+            @Override
+            public boolean asFallbackOnly() {
+                return JavaHomes.EXECUTE_JAVA_VERSION_RELEASE_PROPERTIES_PROVIDER.asFallbackOnly();
+            }
+
+            @Override
+            public Map<String, String> apply(Path javaHomeDir, Path javaExeFile) throws IOException {
+                spawns.spawns++;
+                return JavaHomes.EXECUTE_JAVA_VERSION_RELEASE_PROPERTIES_PROVIDER.apply(javaHomeDir, javaExeFile);
+            }
+        };
+
+        final List<JavaHome> javaHomes = JavaHomes.detect(Collections.singletonList(this.toolchainDir), spawning);
+        spawns.detects++;
+        return javaHomes;
+    }
+
+    static private void writeJavaScript(Path javaExe, Map<String, String> release) throws IOException {
+        final String script = "#!/bin/sh\n"
+            + "echo 'openjdk version \"" + release.getOrDefault("JAVA_VERSION", "17.0.9") + "\" 2023-10-17' >&2\n"
+            + "echo 'OpenJDK Runtime Environment " + release.getOrDefault("IMPLEMENTOR_VERSION", "Temurin-17.0.9+9")
+                + " (build " + release.getOrDefault("JAVA_RUNTIME_VERSION", "17.0.9+9") + ")' >&2\n";
+        Files.write(javaExe, script.getBytes(StandardCharsets.UTF_8));
+        javaExe.toFile().setExecutable(true);
+    }
+
+    static private void copyTree(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (Stream<Path> paths = Files.list(source)) {
+            for (Path p : (Iterable<Path>)paths::iterator) {
+                final Path t = target.resolve(p.getFileName().toString());
+                if (Files.isDirectory(p)) {
+                    copyTree(p, t);
+                } else {
+                    Files.copy(p, t);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.NativeTarget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of finding (already extracted) natives as the classpath grows, since every candidate resource path is
+ * probed via getResource, which searches every jar until one has it (and all of them for a miss).
+ *
+ * The classpath is 10, 100 or 1000 jars of filler, with the jar of natives first, in the middle, or last. The natives
+ * are a library, and a file at each of the three tiers findFile falls back through (os + arch, os, and any).
+ *
+ * java -jar target/benchmarks.jar LookupBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    static final int FILLER_ENTRIES_PER_JAR = 50;
+
+    @Param({ "10", "100", "1000" })
+    public int jars;
+
+    @Param({ "first", "middle", "last" })
+    public String position;
+
+    File dir;
+    IsolatedJne jne;
+    Object options;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        this.dir = Files.createTempDirectory("jne-bench-lookup").toFile();
+
+        final NativeTarget nativeTarget = NativeTarget.detect();
+        final byte[] content = BenchmarkJars.content(8 * 1024, 1L);
+
+        final Map<String, byte[]> natives = new LinkedHashMap<>();
+        natives.put(nativeTarget.resolveResourcePaths("/jne", nativeTarget.resolveLibraryFileName("bench")).get(0).substring(1), content);
+        natives.put(nativeTarget.resolveResourcePaths("/jne", "bench-arch.txt").get(0).substring(1), content);
+        natives.put(NativeTarget.of(nativeTarget.getOperatingSystem(), null, nativeTarget.getAbi()).resolveResourcePaths("/jne", "bench-os.txt").get(0).substring(1), content);
+        natives.put("jne/bench-any.txt", content);
+        final File nativesJar = BenchmarkJars.writeJar(new File(this.dir, "natives.jar"), natives, false);
+
+        // filler jars look like a typical jar of classes (no natives)
+        final List<File> classpath = new ArrayList<>();
+        for (int i = 0; i < this.jars - 1; i++) {
+            final Map<String, byte[]> entries = new LinkedHashMap<>();
+            for (int j = 0; j < FILLER_ENTRIES_PER_JAR; j++) {
+                entries.put("com/example/filler" + i + "/Filler" + j + ".class", BenchmarkJars.content(512, i * 1000L + j));
+            }
+            classpath.add(BenchmarkJars.writeJar(new File(this.dir, "filler-" + i + ".jar"), entries, false));
+        }
+
+        switch (this.position) {
+            case "first":
+                classpath.add(0, nativesJar);
+                break;
+            case "middle":
+                classpath.add(classpath.size() / 2, nativesJar);
+                break;
+            default:
+                classpath.add(nativesJar);
+                break;
+        }
+
+        this.jne = new IsolatedJne(classpath);
+        this.options = this.jne.newOptions(new File(this.dir, "extracted"));
+
+        // extracted once, so the benchmarks measure the lookup rather than the extraction
+        for (String name : new String[] { "bench-arch.txt", "bench-os.txt", "bench-any.txt" }) {
+            this.jne.findFile(name, this.options);
+        }
+        this.jne.findLibrary("bench", this.options);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.jne.close();
+        BenchmarkJars.deleteRecursively(this.dir);
+    }
+
+    @Benchmark
+    public File findLibraryHit() throws Throwable {
+        return this.jne.findLibrary("bench", this.options);
+    }
+
+    @Benchmark
+    public File findLibraryMiss() throws Throwable {
+        return this.jne.findLibrary("does-not-exist", this.options);
+    }
+
+    @Benchmark
+    public File findFileHitOsArch() throws Throwable {
+        return this.jne.findFile("bench-arch.txt", this.options);
+    }
+
+    @Benchmark
+    public File findFileHitOs() throws Throwable {
+        return this.jne.findFile("bench-os.txt", this.options);
+    }
+
+    @Benchmark
+    public File findFileHitAny() throws Throwable {
+        return this.jne.findFile("bench-any.txt", this.options);
+    }
+
+    @Benchmark
+    public File findFileMiss() throws Throwable {
+        return this.jne.findFile("does-not-exist.txt", this.options);
+    }
+
+}
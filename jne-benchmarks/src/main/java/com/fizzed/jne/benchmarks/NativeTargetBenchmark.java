@@ -0,0 +1,103 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.ABI;
+import com.fizzed.jne.HardwareArchitecture;
+import com.fizzed.jne.NativeTarget;
+import com.fizzed.jne.OperatingSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of the text matching behind NativeTarget, on realistic inputs (uname output, download file names, jne
+ * targets, and os.name / os.arch values). Each benchmark runs over its whole set of inputs, so the score is per set.
+ *
+ * java -jar target/benchmarks.jar NativeTargetBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class NativeTargetBenchmark {
+
+    static final String[] TEXTS = {
+        "Linux host 6.8.0-45-generic #45-Ubuntu SMP PREEMPT_DYNAMIC x86_64 x86_64 x86_64 GNU/Linux",
+        "Linux host 5.15.0-1034-raspi #37-Ubuntu SMP PREEMPT armv7l armv7l armv7l GNU/Linux",
+        "Darwin host 24.6.0 Darwin Kernel Version 24.6.0: root:xnu-11417.140.69.701.11~1/RELEASE_ARM64_VMAPPLE arm64",
+        "FreeBSD host 13.2-RELEASE FreeBSD 13.2-RELEASE releng/13.2-n254617-525ecfdad597 GENERIC amd64",
+        "https://cloud-images.ubuntu.com/noble/current/noble-server-cloudimg-arm64.img",
+        "zulu17.54.21-ca-jre17.0.13-c2-linux_aarch32hf.tar.gz",
+        "zulu8.82.0.23-ca-hl-jdk8.0.432-linux_ppc64.tar.gz",
+        "bellsoft-jre21.0.2+14-windows-i586.zip",
+        "bellsoft-jre21.0.2+14-macos-aarch64.zip",
+        "OpenJDK21U-jdk_x64_alpine-linux_hotspot_21.0.5_11.tar.gz",
+    };
+
+    static final String[] JNE_TARGETS = {
+        "linux-x64", "linux-arm64", "linux-armhf", "linux-riscv64", "linux_musl-x64", "linux_musl-arm64",
+        "macos-x64", "macos-arm64", "windows-x64", "windows-arm64", "freebsd-x64", "openbsd-x64",
+    };
+
+    static final String[] OS_NAMES = {
+        "Linux", "Mac OS X", "Windows 11", "Windows Server 2022", "FreeBSD", "OpenBSD", "NetBSD", "SunOS", "darwin",
+        "win",
+    };
+
+    static final String[] OS_ARCHS = {
+        "amd64", "x86_64", "aarch64", "arm64", "arm", "i386", "x86", "riscv64", "ppc64le", "s390x",
+    };
+
+    static final NativeTarget[] TARGETS = {
+        NativeTarget.of(OperatingSystem.LINUX, HardwareArchitecture.X64, ABI.GNU),
+        NativeTarget.of(OperatingSystem.LINUX, HardwareArchitecture.ARM64, ABI.MUSL),
+        NativeTarget.of(OperatingSystem.MACOS, HardwareArchitecture.ARM64, null),
+        NativeTarget.of(OperatingSystem.WINDOWS, HardwareArchitecture.X64, null),
+    };
+
+    @Benchmark
+    public void detectFromText(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(NativeTarget.detectFromText(text));
+        }
+    }
+
+    @Benchmark
+    public void fromJneTarget(Blackhole bh) {
+        for (String jneTarget : JNE_TARGETS) {
+            bh.consume(NativeTarget.fromJneTarget(jneTarget));
+        }
+    }
+
+    @Benchmark
+    public void resolveResourcePaths(Blackhole bh) {
+        for (NativeTarget target : TARGETS) {
+            bh.consume(target.resolveResourcePaths("/jne", "libhelloj.so"));
+        }
+    }
+
+    @Benchmark
+    public void operatingSystemResolve(Blackhole bh) {
+        for (String osName : OS_NAMES) {
+            bh.consume(OperatingSystem.resolve(osName));
+        }
+    }
+
+    @Benchmark
+    public void hardwareArchitectureResolve(Blackhole bh) {
+        for (String osArch : OS_ARCHS) {
+            bh.consume(HardwareArchitecture.resolve(osArch));
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.PlatformInfo;
+import com.fizzed.jne.internal.SystemExecutorFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of PlatformInfo.detect on real world platforms, with the output of its probes (uname, /etc/os-release, ldd,
+ * sw_vers, the windows registry, etc.) replayed from jne's test fixtures, so it's deterministic and measures the
+ * parsing and matching rather than spawning processes.
+ *
+ * java -jar target/benchmarks.jar PlatformDetectBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class PlatformDetectBenchmark {
+
+    @Param({ "ubuntu2404", "ubuntu2404-proc", "alpine315", "fedora42-arm64", "freebsd13", "macos15-arm64", "windows11" })
+    public String platform;
+
+    File dir;
+    SystemExecutorFixture systemExecutor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.dir = Files.createTempDirectory("jne-bench-platform").toFile();
+        this.systemExecutor = new SystemExecutorFixture(TestResources.copy("fixtures/platforms/" + this.platform, this.dir.toPath()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkJars.deleteRecursively(this.dir);
+    }
+
+    @Benchmark
+    public PlatformInfo detectVersion() {
+        return PlatformInfo.detect(this.systemExecutor, PlatformInfo.Detect.VERSION);
+    }
+
+    @Benchmark
+    public PlatformInfo detectAll() {
+        return PlatformInfo.detect(this.systemExecutor, PlatformInfo.Detect.ALL);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.internal.LibCs;
+import com.fizzed.jne.internal.MacSwVers;
+import com.fizzed.jne.internal.OsReleaseFile;
+import com.fizzed.jne.internal.SystemExecutorFixture;
+import com.fizzed.jne.internal.Uname;
+import com.fizzed.jne.internal.WindowsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of parsing the output of each probe PlatformInfo.detect runs, with the output read from jne's test
+ * fixtures up front, so only the parsing is measured (not reading the fixtures, nor spawning processes).
+ *
+ * java -jar target/benchmarks.jar PlatformProbeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class PlatformProbeBenchmark {
+
+    String unameLinux;
+    String unameMacos;
+    String osRelease;
+    String lddGlibc;
+    String lddMusl;
+    String libcGlibc;
+    String libcMusl;
+    String swVers;
+    String windowsRegistry;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final File dir = Files.createTempDirectory("jne-bench-probe").toFile();
+        try {
+            final SystemExecutorFixture ubuntu = fixture("ubuntu2404", dir);
+            final SystemExecutorFixture alpine = fixture("alpine315", dir);
+            final SystemExecutorFixture macos = fixture("macos15-arm64", dir);
+            final SystemExecutorFixture windows = fixture("windows11", dir);
+
+            this.unameLinux = ubuntu.execProcess("uname", "-a");
+            this.unameMacos = macos.execProcess("uname", "-a");
+            this.osRelease = ubuntu.catFile("/etc/os-release");
+            this.lddGlibc = ubuntu.execProcess("ldd", "/bin/ls");
+            this.lddMusl = alpine.execProcess("ldd", "/bin/ls");
+            this.libcGlibc = ubuntu.execProcess(Collections.emptyList(), LibCs.parsePath(this.lddGlibc).getPath());
+            this.libcMusl = alpine.execProcess(Collections.emptyList(), LibCs.parsePath(this.lddMusl).getPath());
+            this.swVers = macos.execProcess("sw_vers");
+            this.windowsRegistry = windows.execProcess("reg.exe", "query",
+                "HKLM\\SOFTWARE\\Microsoft\\Windows NT\\CurrentVersion");
+        } finally {
+            BenchmarkJars.deleteRecursively(dir);
+        }
+    }
+
+    static private SystemExecutorFixture fixture(String platform, File dir) throws IOException {
+        return new SystemExecutorFixture(TestResources.copy("fixtures/platforms/" + platform, new File(dir, platform).toPath()));
+    }
+
+    @Benchmark
+    public Uname unameLinux() {
+        return Uname.parse(this.unameLinux);
+    }
+
+    @Benchmark
+    public Uname unameMacos() {
+        return Uname.parse(this.unameMacos);
+    }
+
+    @Benchmark
+    public OsReleaseFile osRelease() {
+        return OsReleaseFile.parse(this.osRelease);
+    }
+
+    @Benchmark
+    public LibCs.PathResult lddGlibc() {
+        return LibCs.parsePath(this.lddGlibc);
+    }
+
+    @Benchmark
+    public LibCs.PathResult lddMusl() {
+        return LibCs.parsePath(this.lddMusl);
+    }
+
+    @Benchmark
+    public String libcVersionGlibc() {
+        return LibCs.parseVersion(this.libcGlibc);
+    }
+
+    @Benchmark
+    public String libcVersionMusl() {
+        return LibCs.parseVersion(this.libcMusl);
+    }
+
+    @Benchmark
+    public MacSwVers swVers() {
+        return MacSwVers.parse(this.swVers);
+    }
+
+    @Benchmark
+    public WindowsRegistry windowsRegistry() throws IOException {
+        return WindowsRegistry.parse(this.windowsRegistry);
+    }
+
+}
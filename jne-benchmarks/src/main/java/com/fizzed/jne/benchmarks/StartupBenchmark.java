@@ -0,0 +1,142 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.Options;
+import com.fizzed.jne.PrepareMain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The wall clock time from launching a fresh JVM to its first successful JNE.loadLibrary (of libhelloj) and
+ * findExecutable (of jcat), which is what serverless functions and CLIs pay on every start. Each invocation launches
+ * one JVM (of the same java running the benchmark) and stops the clock once it prints that it's ready, so its exit
+ * isn't measured. The scenarios are
+ *
+ *  - baseline: a JVM that makes no native calls (subtract it to get what JNE costs)
+ *  - temp: the defaults, which extract to a new temp dir every time (so are always cold)
+ *  - fixed-cold: a fixed jne.extract.dir, emptied before every launch
+ *  - fixed-warm: a fixed jne.extract.dir, already extracted to by an earlier launch
+ *  - prepared: a jne.prepared.dir (see PrepareMain), which skips platform detection and lookups entirely
+ *
+ * java -jar target/benchmarks.jar StartupBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({ "baseline", "temp", "fixed-cold", "fixed-warm", "prepared" })
+    public String scenario;
+
+    File dir;
+    File extractDir;
+    File preparedDir;
+    List<String> command;
+    Process process;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.dir = Files.createTempDirectory("jne-bench-startup").toFile();
+        this.extractDir = new File(this.dir, "extract");
+        this.preparedDir = new File(this.dir, "prepared");
+
+        // the child runs from the same (shaded) jar, which has the natives in it
+        final String classpath = new File(StartupChild.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+
+        this.command = new ArrayList<>();
+        this.command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        this.command.add("-cp");
+        this.command.add(classpath);
+        switch (this.scenario) {
+            case "fixed-cold":
+            case "fixed-warm":
+                this.command.add("-D" + Options.SYSPROP_EXTRACT_DIR + "=" + this.extractDir.getAbsolutePath());
+                this.command.add("-D" + Options.SYSPROP_CLEANUP_EXTRACTED + "=false");
+                break;
+            case "prepared":
+                PrepareMain.main(new String[] { "--dir", this.preparedDir.getAbsolutePath(), "library:helloj", "executable:jcat" });
+                this.command.add("-D" + Options.SYSPROP_PREPARED_DIR + "=" + this.preparedDir.getAbsolutePath());
+                break;
+            default:
+                break;
+        }
+        this.command.add(StartupChild.class.getName());
+        if ("baseline".equals(this.scenario)) {
+            this.command.add("baseline");
+        }
+
+        if ("fixed-warm".equals(this.scenario)) {
+            // warm up the extract dir
+            this.launch();
+            this.process.waitFor();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        if ("fixed-cold".equals(this.scenario)) {
+            BenchmarkJars.deleteRecursively(this.extractDir);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws Exception {
+        if (this.process != null) {
+            this.process.waitFor();
+            this.process = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkJars.deleteRecursively(this.dir);
+    }
+
+    @Benchmark
+    public void firstNativeCall() throws Exception {
+        this.launch();
+    }
+
+    private void launch() throws IOException {
+        final ProcessBuilder pb = new ProcessBuilder(this.command);
+        pb.redirectErrorStream(true);
+        this.process = pb.start();
+
+        // the clock stops once the child is ready (its exit isn't measured)
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(this.process.getInputStream(), StandardCharsets.UTF_8));
+        final StringBuilder output = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.equals(StartupChild.READY)) {
+                return;
+            }
+            output.append(line).append('\n');
+        }
+        throw new IllegalStateException("Child jvm exited without being ready: " + output);
+    }
+
+}
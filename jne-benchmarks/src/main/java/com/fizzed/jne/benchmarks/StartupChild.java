@@ -0,0 +1,22 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.JNE;
+
+/**
+ * The main of the fresh JVMs StartupBenchmark launches, which makes the first native calls (unless its arg is
+ * "baseline") and then prints READY, so the launching JVM can time how long it took to get there.
+ */
+public class StartupChild {
+
+    static public final String READY = "READY";
+
+    static public void main(String[] args) throws Exception {
+        if (args.length == 0 || !"baseline".equals(args[0])) {
+            JNE.loadLibrary("helloj");
+            JNE.requireExecutable("jcat");
+        }
+        System.out.println(READY);
+        System.out.flush();
+    }
+
+}
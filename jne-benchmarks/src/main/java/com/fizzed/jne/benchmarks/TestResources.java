@@ -0,0 +1,71 @@
+package com.fizzed.jne.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+/**
+ * Test resources of jne that are bundled into the benchmarks jar (e.g. the platform fixtures, such as the output of
+ * "uname -a" captured on ubuntu 24.04, or the layouts of mock JDKs), and copied out to a dir for the benchmarks to
+ * run against.
+ */
+public class TestResources {
+
+    /**
+     * Copies a dir of resources (e.g. "fixtures/platforms/ubuntu2404"), and everything in it, into the target dir.
+     *
+     * @return the target dir
+     */
+    static public Path copy(String resourceDir, Path targetDir) throws IOException {
+        final URL url = TestResources.class.getResource("/" + resourceDir);
+        if (url == null) {
+            throw new IllegalArgumentException("No resources in [" + resourceDir + "]");
+        }
+
+        final URI uri;
+        try {
+            uri = url.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        if ("jar".equals(uri.getScheme())) {
+            FileSystem fs;
+            try {
+                fs = FileSystems.newFileSystem(uri, Collections.emptyMap());
+            } catch (FileSystemAlreadyExistsException e) {
+                fs = FileSystems.getFileSystem(uri);
+            }
+            copyTree(fs.provider().getPath(uri), targetDir);
+        } else {
+            copyTree(Paths.get(uri), targetDir);
+        }
+
+        return targetDir;
+    }
+
+    static private void copyTree(Path sourceDir, Path targetDir) throws IOException {
+        Files.createDirectories(targetDir);
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            for (Path file : (Iterable<Path>)files::iterator) {
+                // the name as a string, since the paths are (likely) of different filesystems
+                final Path target = targetDir.resolve(file.getFileName().toString());
+                if (Files.isDirectory(file)) {
+                    copyTree(file, target);
+                } else {
+                    Files.copy(file, target);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.fizzed.jne.benchmarks;
+
+import com.fizzed.jne.JavaVersion;
+import com.fizzed.jne.SemanticVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of parsing, comparing and sorting SemanticVersion and JavaVersion, on realistic corpora of kernel, jdk and
+ * distro versions. Parse and compare scores are per version (or per comparison), sort scores are per list, and
+ * running with -prof gc gives the allocations of each.
+ *
+ * java -jar target/benchmarks.jar VersionBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class VersionBenchmark {
+
+    static final String[] KERNEL_VERSIONS = {
+        "6.8.0-45-generic", "5.15.0-88-generic", "6.17.0-5-generic", "4.15.0-213-generic", "5.15.61-0-lts",
+        "6.1.0-26-amd64", "5.14.0-427.13.1.el9_4.x86_64", "6.11.5-300.fc41.aarch64", "6.6.51+rpt-rpi-v8",
+        "24.6.0", "20.6.0", "13.2-RELEASE", "15.0-ALPHA1", "10.0.19045.5011",
+    };
+
+    static final String[] JDK_VERSIONS = {
+        "1.8.0_392", "1.8.0_432-b06", "1.7.0_352", "11.0.21", "11.0.25+9-LTS", "17.0.9", "17.0.13+11", "17.0.5+8-LTS",
+        "21.0.1", "21.0.5+11-LTS", "21.0.2+14", "22.0.2", "23", "25+36", "9.0.4", "1.8.0_412-zulu",
+    };
+
+    static final String[] DISTRO_VERSIONS = {
+        "24.04", "22.04.4", "20.04", "18.04.6", "16.04.7", "3.15.11", "3.20.3", "9.4", "8.10", "42", "43", "12.7",
+        "15.2", "11.7.10", "10.0", "7.8",
+    };
+
+    static final String[] SEMANTIC_CORPUS = concat(KERNEL_VERSIONS, JDK_VERSIONS, DISTRO_VERSIONS);
+    static final String[] JAVA_CORPUS = JDK_VERSIONS;
+
+    SemanticVersion[] semanticVersions;
+    JavaVersion[] javaVersions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.semanticVersions = new SemanticVersion[SEMANTIC_CORPUS.length];
+        for (int i = 0; i < SEMANTIC_CORPUS.length; i++) {
+            this.semanticVersions[i] = SemanticVersion.parse(SEMANTIC_CORPUS[i]);
+        }
+        this.javaVersions = new JavaVersion[JAVA_CORPUS.length];
+        for (int i = 0; i < JAVA_CORPUS.length; i++) {
+            this.javaVersions[i] = JavaVersion.parse(JAVA_CORPUS[i]);
+        }
+    }
+
+    /**
+     * A catalog of jdk builds, in a random (but repeatable) order.
+     */
+    @State(Scope.Benchmark)
+    static public class Catalog {
+
+        @Param({ "1000", "100000" })
+        public int size;
+
+        List<SemanticVersion> semanticVersions;
+        List<JavaVersion> javaVersions;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final Random random = new Random(1L);
+            this.semanticVersions = new ArrayList<>(this.size);
+            this.javaVersions = new ArrayList<>(this.size);
+            for (int i = 0; i < this.size; i++) {
+                final String version = randomJdkVersion(random);
+                this.semanticVersions.add(SemanticVersion.parse(version));
+                this.javaVersions.add(JavaVersion.parse(version));
+            }
+        }
+
+    }
+
+    static private String randomJdkVersion(Random random) {
+        final int major = 8 + random.nextInt(18);
+        final int build = 1 + random.nextInt(40);
+        if (major == 8) {
+            return "1.8.0_" + (100 + random.nextInt(350)) + "-b" + (build < 10 ? "0" + build : build);
+        }
+        return major + "." + random.nextInt(2) + "." + random.nextInt(30) + "+" + build
+            + (random.nextBoolean() ? "-LTS" : "");
+    }
+
+    static private String[] concat(String[]... arrays) {
+        final List<String> values = new ArrayList<>();
+        for (String[] array : arrays) {
+            Collections.addAll(values, array);
+        }
+        return values.toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(46)
+    public void semanticParse(Blackhole bh) {
+        for (String version : SEMANTIC_CORPUS) {
+            bh.consume(SemanticVersion.parse(version));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void javaParse(Blackhole bh) {
+        for (String version : JAVA_CORPUS) {
+            bh.consume(JavaVersion.parse(version));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(45)
+    public void semanticCompareTo(Blackhole bh) {
+        final SemanticVersion[] versions = this.semanticVersions;
+        for (int i = 1; i < versions.length; i++) {
+            bh.consume(versions[i - 1].compareTo(versions[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(15)
+    public void javaCompareTo(Blackhole bh) {
+        final JavaVersion[] versions = this.javaVersions;
+        for (int i = 1; i < versions.length; i++) {
+            bh.consume(versions[i - 1].compareTo(versions[i]));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<SemanticVersion> semanticSort(Catalog catalog) {
+        // copying the list is a small (and constant) part of the cost
+        final List<SemanticVersion> list = new ArrayList<>(catalog.semanticVersions);
+        Collections.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<JavaVersion> javaSort(Catalog catalog) {
+        final List<JavaVersion> list = new ArrayList<>(catalog.javaVersions);
+        Collections.sort(list);
+        return list;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.fizzed.jne.jcstress;
+
+import com.fizzed.jne.ABI;
+import com.fizzed.jne.OperatingSystem;
+import com.fizzed.jne.PlatformInfo;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZI_Result;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * The same caching as PlatformInfo.detectAbi (abiRefs.computeIfAbsent), but with a fresh map per iteration, so every
+ * iteration races the detection itself: it runs exactly once, and both threads get its result.
+ */
+@JCStressTest
+@Description("The abi of an operating system is detected once, even when threads race to detect it")
+@Outcome(id = "true, true, 1", expect = ACCEPTABLE, desc = "Detected once, both threads got the same abi")
+@Outcome(expect = FORBIDDEN, desc = "Detected more than once, or the threads got different (or null) abis")
+@State
+public class DetectAbiComputeStress {
+
+    static private final OperatingSystem OS = PlatformInfo.detectOperatingSystem();
+
+    private final ConcurrentHashMap<OperatingSystem, ABI> abiRefs = new ConcurrentHashMap<>();
+    private final AtomicInteger detects = new AtomicInteger();
+    private ABI abi1;
+    private ABI abi2;
+
+    private ABI detect(OperatingSystem os) {
+        this.detects.incrementAndGet();
+        return PlatformInfo.detectAbi(os);
+    }
+
+    @Actor
+    public void actor1() {
+        this.abi1 = this.abiRefs.computeIfAbsent(OS, this::detect);
+    }
+
+    @Actor
+    public void actor2() {
+        this.abi2 = this.abiRefs.computeIfAbsent(OS, this::detect);
+    }
+
+    @Arbiter
+    public void arbiter(ZZI_Result r) {
+        r.r1 = this.abi1 != null && this.abi2 != null;
+        r.r2 = this.abi1 == this.abi2;
+        r.r3 = this.detects.get();
+    }
+
+}
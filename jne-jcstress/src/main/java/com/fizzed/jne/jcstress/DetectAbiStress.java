@@ -0,0 +1,49 @@
+package com.fizzed.jne.jcstress;
+
+import com.fizzed.jne.ABI;
+import com.fizzed.jne.OperatingSystem;
+import com.fizzed.jne.PlatformInfo;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two threads racing PlatformInfo.detectAbi, which caches the abi of each operating system in a ConcurrentHashMap
+ * (abiRefs): both get the same, non-null abi. The cache is static, so only the first iterations of a run race the
+ * detection itself, the rest race reading the cached value. See DetectAbiComputeStress for the detection racing.
+ */
+@JCStressTest
+@Description("PlatformInfo.detectAbi returns the same abi to every thread")
+@Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Both threads got the same abi")
+@Outcome(expect = FORBIDDEN, desc = "An abi was null, or the threads got different ones")
+@State
+public class DetectAbiStress {
+
+    private final OperatingSystem os = PlatformInfo.detectOperatingSystem();
+    private ABI abi1;
+    private ABI abi2;
+
+    @Actor
+    public void actor1() {
+        this.abi1 = PlatformInfo.detectAbi(this.os);
+    }
+
+    @Actor
+    public void actor2() {
+        this.abi2 = PlatformInfo.detectAbi(this.os);
+    }
+
+    @Arbiter
+    public void arbiter(ZZ_Result r) {
+        r.r1 = this.abi1 != null && this.abi2 != null;
+        r.r2 = this.abi1 == this.abi2;
+    }
+
+}
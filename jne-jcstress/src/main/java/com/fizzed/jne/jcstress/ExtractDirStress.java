@@ -0,0 +1,59 @@
+package com.fizzed.jne.jcstress;
+
+import com.fizzed.jne.JNE;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two threads racing to find (and extract) a file, which publishes the temp dir JNE extracts to (TEMP_DIRECTORY, a
+ * volatile static, written under the lock on the system properties): both find it, in the same dir. The temp dir is
+ * created once per jvm, so only the first iterations of a run race creating it, the rest race reading it.
+ */
+@JCStressTest
+@Description("Every thread extracts to the same temp dir")
+@Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Both threads found the file in the same temp dir")
+@Outcome(expect = FORBIDDEN, desc = "A thread didn't find the file, or the threads used different temp dirs")
+@State
+public class ExtractDirStress {
+
+    private File file1;
+    private File file2;
+
+    static private File findFile() {
+        try {
+            // bundled at jne/jcstress.txt (in the "any" os & arch dir)
+            return JNE.findFile("jcstress.txt");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Actor
+    public void actor1() {
+        this.file1 = findFile();
+    }
+
+    @Actor
+    public void actor2() {
+        this.file2 = findFile();
+    }
+
+    @Arbiter
+    public void arbiter(ZZ_Result r) {
+        r.r1 = this.file1 != null && this.file2 != null;
+        r.r2 = r.r1 && this.file1.getParentFile().equals(this.file2.getParentFile());
+    }
+
+}
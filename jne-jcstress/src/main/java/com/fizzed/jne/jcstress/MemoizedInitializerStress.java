@@ -0,0 +1,64 @@
+package com.fizzed.jne.jcstress;
+
+import com.fizzed.jne.MemoizedInitializer;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.IIII_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two threads racing MemoizedInitializer.once: the value is initialized exactly once, both threads get the same
+ * instance, and both see it fully constructed (even its non-final fields), since it's published via the
+ * AtomicReference (a volatile write/read) or the lock.
+ */
+@JCStressTest
+@Description("MemoizedInitializer.once initializes once and safely publishes the value")
+@Outcome(id = "42, 42, 1, 1", expect = ACCEPTABLE, desc = "Initialized once, both threads see the same, fully constructed value")
+@Outcome(expect = FORBIDDEN, desc = "Initialized more than once, different values, or a partially constructed value")
+@State
+public class MemoizedInitializerStress {
+
+    static public class Value {
+        int x;
+
+        Value() {
+            this.x = 42;
+        }
+    }
+
+    private final MemoizedInitializer<Value> initializer = new MemoizedInitializer<>();
+    private int inits;
+    private Value value1;
+    private Value value2;
+
+    private Value init() {
+        // only ever called under the lock of the initializer
+        this.inits++;
+        return new Value();
+    }
+
+    @Actor
+    public void actor1(IIII_Result r) {
+        this.value1 = this.initializer.once(this::init);
+        r.r1 = this.value1.x;
+    }
+
+    @Actor
+    public void actor2(IIII_Result r) {
+        this.value2 = this.initializer.once(this::init);
+        r.r2 = this.value2.x;
+    }
+
+    @Arbiter
+    public void arbiter(IIII_Result r) {
+        r.r3 = this.inits;
+        r.r4 = this.value1 == this.value2 ? 1 : 0;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.fizzed.jne.jcstress;
+
+import com.fizzed.jne.MemoizedRunner;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two threads racing MemoizedRunner.once: the runnable runs exactly once. Since the "ran" flag is set before the
+ * runnable runs (so a re-entrant call from static initialization doesn't run it twice), the thread that loses the
+ * race may return before the runnable has finished, and not see what it did. Callers that need the result must not
+ * rely on once() returning as a barrier (that's what MemoizedInitializer is for).
+ */
+@JCStressTest
+@Description("MemoizedRunner.once runs once, but does not wait for a concurrent run to finish")
+@Outcome(id = "1, 1, 1", expect = ACCEPTABLE, desc = "Ran once, both threads see its effect")
+@Outcome(id = { "0, 1, 1", "1, 0, 1" }, expect = ACCEPTABLE_INTERESTING, desc = "Ran once, but the losing thread returned before the run finished")
+@Outcome(expect = FORBIDDEN, desc = "Ran more than once (or never)")
+@State
+public class MemoizedRunnerStress {
+
+    private final MemoizedRunner runner = new MemoizedRunner();
+    private int runs;
+    private int ran;
+
+    private void run() {
+        this.runs++;
+        this.ran = 1;
+    }
+
+    @Actor
+    public void actor1(III_Result r) {
+        this.runner.once(this::run);
+        r.r1 = this.ran;
+    }
+
+    @Actor
+    public void actor2(III_Result r) {
+        this.runner.once(this::run);
+        r.r2 = this.ran;
+    }
+
+    @Arbiter
+    public void arbiter(III_Result r) {
+        r.r3 = this.runs;
+    }
+
+}
@@ -19,22 +19,30 @@ package com.fizzed.jne;
  * limitations under the License.
  * #L%
  */
+import com.fizzed.jne.internal.FileMaterializer;
+import com.fizzed.jne.internal.JneEvents;
+import com.fizzed.jne.internal.LinuxMountInfo;
+import com.fizzed.jne.internal.MemoryLibraryLoader;
+import com.fizzed.jne.internal.PreparedManifest;
+import com.fizzed.jne.internal.ResourceExtractor;
+
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,8 +50,45 @@ public class JNE {
 
     static private final Logger log = LoggerFactory.getLogger(JNE.class);
 
-    static private File TEMP_DIRECTORY;
+    /**
+     * Libraries often shade their own copy of JNE, so a jvm may have several copies loaded, each with its own
+     * statics. These system properties are a stable contract between all copies (of any version) so they agree on
+     * a single temp dir per process. Never change their names.
+     */
+    static public final String SYSPROP_PROCESS_EXTRACT_DIR = "jne.process.extract.dir";
+    static public final String SYSPROP_PROCESS_MEMORY_EXTRACT_DIR = "jne.process.memory.extract.dir";
+    static public final String SYSPROP_PROCESS_MEMORY_EXTRACT_BYTES = "jne.process.memory.extract.bytes";
+
+    static private volatile File TEMP_DIRECTORY;
+    static private volatile File MEMORY_TEMP_DIRECTORY;
     static private final ConcurrentHashMap<File, String> JAR_VERSION_HASHES = new ConcurrentHashMap<>();
+    static private final ConcurrentHashMap<String, String> MEMORY_LOADED_LIBRARIES = new ConcurrentHashMap<>();
+    static private final ConcurrentHashMap<String, String> LOADED_LIBRARIES = new ConcurrentHashMap<>();
+    static private final ConcurrentHashMap<File, PreparedManifest> PREPARED_MANIFESTS = new ConcurrentHashMap<>();
+    static private final ConcurrentHashMap<String, Boolean> VERIFIED_SHARED_FILES = new ConcurrentHashMap<>();
+    static private final ConcurrentHashMap<String, Boolean> PREPARED_TARGET_MISMATCHES = new ConcurrentHashMap<>();
+    static private final String CLASSLOADER_TOKEN = UUID.randomUUID().toString();
+    static private final MemoizedInitializer<LinuxMountInfo> LINUX_MOUNT_INFO = new MemoizedInitializer<>();
+
+    static {
+        if (Boolean.getBoolean(JneStats.SYSPROP_JMX)) {
+            JneStats.register();
+        }
+    }
+
+    /**
+     * Registers a listener notified of every lookup, extraction, and load (as
+     * well as platform and java home detection).
+     *
+     * @param listener The listener to add
+     */
+    static public void addListener(JneListener listener) {
+        JneListeners.add(listener);
+    }
+
+    static public void removeListener(JneListener listener) {
+        JneListeners.remove(listener);
+    }
 
     /**
      * Finds (extracts if necessary) a named executable for the runtime
@@ -61,7 +106,7 @@ public class JNE {
      * @throws ExtractException Thrown if a runtime exception occurs while
      * finding or extracting the executable.
      */
-    synchronized static public File findExecutable(String name) throws IOException {
+    static public File findExecutable(String name) throws IOException {
         return findExecutable(name, null, null);
     }
 
@@ -83,7 +128,7 @@ public class JNE {
      * @throws ExtractException Thrown if a runtime exception occurs while
      * finding or extracting the executable.
      */
-    synchronized static public File findExecutable(String name, String targetName) throws IOException {
+    static public File findExecutable(String name, String targetName) throws IOException {
         return findExecutable(name, targetName, null);
     }
 
@@ -102,7 +147,7 @@ public class JNE {
      * @throws ExtractException Thrown if a runtime exception occurs while
      * finding or extracting the executable.
      */
-    synchronized static public File findExecutable(String name, Options options) throws IOException {
+    static public File findExecutable(String name, Options options) throws IOException {
         return findExecutable(name, null, options);
     }
 
@@ -123,11 +168,40 @@ public class JNE {
      * @throws ExtractException Thrown if a runtime exception occurs while
      * finding or extracting the executable.
      */
-    synchronized static public File findExecutable(String name, String targetName, Options options) throws IOException {
+    static public File findExecutable(String name, String targetName, Options options) throws IOException {
         if (options == null) {
             options = Options.DEFAULT;
         }
 
+        final Object event = JneEvents.beginLookup();
+        final long lookupStart = System.nanoTime();
+        final JneListener listener = JneListeners.resolve(options);
+        if (listener != null) {
+            listener.onLookupStart("executable", name);
+        }
+
+        File file = null;
+        try {
+            file = lookupExecutable(name, targetName, options);
+        } catch (IOException | RuntimeException | Error e) {
+            lookupFailed(listener, lookupStart, "executable", name, e);
+            throw e;
+        } finally {
+            // even if the lookup failed, so its event is still committed
+            JneEvents.endLookup(event, "executable", name, file);
+        }
+
+        return lookedUp(listener, lookupStart, "executable", name, file);
+    }
+
+    static private File lookupExecutable(String name, String targetName, Options options) throws IOException {
+        if (targetName == null) {
+            final File preparedFile = findPrepared("executable", name, options);
+            if (preparedFile != null) {
+                return preparedFile;
+            }
+        }
+
         final NativeTarget nativeTarget = resolveNativeTarget(options);
 
         String fileName = nativeTarget.resolveExecutableFileName(name);
@@ -153,7 +227,7 @@ public class JNE {
      * Same as findExecutable but throws an exception if the executable was not
      * found.
      */
-    synchronized static public File requireExecutable(String name) throws IOException {
+    static public File requireExecutable(String name) throws IOException {
         return requireExecutable(name, null, null);
     }
 
@@ -161,7 +235,7 @@ public class JNE {
      * Same as findExecutable but throws an exception if the executable was not
      * found.
      */
-    synchronized static public File requireExecutable(String name, Options options) throws IOException {
+    static public File requireExecutable(String name, Options options) throws IOException {
         return requireExecutable(name, null, options);
     }
 
@@ -169,7 +243,7 @@ public class JNE {
      * Same as findExecutable but throws an exception if the executable was not
      * found.
      */
-    synchronized static public File requireExecutable(String name, String targetName, Options options) throws IOException {
+    static public File requireExecutable(String name, String targetName, Options options) throws IOException {
         File file = findExecutable(name, targetName, options);
         if (file == null) {
             throw new ResourceNotFoundException("Resource executable " + name + " not found");
@@ -177,15 +251,42 @@ public class JNE {
         return file;
     }
 
-    synchronized static public File findLibrary(String name) {
+    static public File findLibrary(String name) {
         return findLibrary(name, null);
     }
 
-    synchronized static public File findLibrary(String name, Options options) {
+    static public File findLibrary(String name, Options options) {
         if (options == null) {
             options = Options.DEFAULT;
         }
 
+        final Object event = JneEvents.beginLookup();
+        final long lookupStart = System.nanoTime();
+        final JneListener listener = JneListeners.resolve(options);
+        if (listener != null) {
+            listener.onLookupStart("library", name);
+        }
+
+        File file = null;
+        try {
+            file = lookupLibrary(name, options);
+        } catch (RuntimeException | Error e) {
+            lookupFailed(listener, lookupStart, "library", name, e);
+            throw e;
+        } finally {
+            // even if the lookup failed, so its event is still committed
+            JneEvents.endLookup(event, "library", name, file);
+        }
+
+        return lookedUp(listener, lookupStart, "library", name, file);
+    }
+
+    static private File lookupLibrary(String name, Options options) {
+        final File preparedFile = findPrepared("library", name, options);
+        if (preparedFile != null) {
+            return preparedFile;
+        }
+
         final NativeTarget nativeTarget = resolveNativeTarget(options);
 
         // file name to try and find/extract
@@ -250,6 +351,16 @@ public class JNE {
      * finding or extracting the executable.
      */
     synchronized static public void loadLibrary(String name, Options options) {
+        if (options == null) {
+            options = Options.DEFAULT;
+        }
+
+        // diskless loading (if requested and supported), otherwise fallback to extracting the library
+        if (options.isLoadFromMemory() && options.getPreparedDir() == null && MemoryLibraryLoader.isSupported()
+                && loadLibraryFromMemory(name, options)) {
+            return;
+        }
+
         // search for specific library
         File f = null;
         try {
@@ -260,21 +371,265 @@ public class JNE {
         }
 
         // temporarily prepend library path to load library if found
-        if (f != null) {
-            // since loading of dependencies of a library cannot dynamically happen
-            // and the user would be required to provide a valid LD_LIBRARY_PATH when
-            // launching the java process -- we don't need to do use loadLibrary
-            // and can just tell it to load a specific library file
-            String libraryPath = f.getAbsolutePath();
+        final long loadStart = System.nanoTime();
+        final Object event = JneEvents.beginLoadLibrary();
+        final JneListener listener = JneListeners.resolve(options);
+        String libraryPath = f != null ? f.getAbsolutePath() : System.mapLibraryName(name);
+        boolean loaded = false;
+        try {
+            if (f != null) {
+                LookupReport.file(f);
+                // since loading of dependencies of a library cannot dynamically happen
+                // and the user would be required to provide a valid LD_LIBRARY_PATH when
+                // launching the java process -- we don't need to do use loadLibrary
+                // and can just tell it to load a specific library file
+                libraryPath = loadLibraryFile(f);
+                loaded = true;
+                log.debug("Loaded library [{}] @ {}", name, libraryPath);
+            } else {
+                log.trace("Falling back to System.loadLibrary(" + name + ")");
+                // fallback to java method
+                System.loadLibrary(name);
+                loaded = true;
+                log.debug("Loaded library [{}]", name);
+            }
+        } catch (RuntimeException | UnsatisfiedLinkError e) {
+            if (listener != null) {
+                listener.onLoadFailure(name, libraryPath, e);
+            }
+            throw e;
+        } finally {
+            JneEvents.endLoadLibrary(event, name, libraryPath, loaded);
+        }
+        JneStats.getInstance().loaded(name, libraryPath);
+        if (listener != null) {
+            listener.onLoad(name, libraryPath, System.nanoTime() - loadStart);
+        }
+        LookupReport.phase(LookupReport.Phase.LOAD, loadStart);
+    }
+
+    /**
+     * Loads the library file, or if the jvm reports it is already loaded in another classloader (e.g. by this same
+     * app before a hot redeploy), a copy of it materialized just for the classloader of this copy of JNE. Since the
+     * registry of what we loaded is a static of this class, it is released along with the classloader.
+     *
+     * @return the path the library was actually loaded from
+     */
+    static private String loadLibraryFile(File file) {
+        final String libraryPath = file.getAbsolutePath();
+
+        // previously loaded via a materialized copy (loading the original again would fail again, and the copy may
+        // already be deleted), but it's already loaded by this classloader, so there is nothing to do
+        final String loadedPath = LOADED_LIBRARIES.get(libraryPath);
+        if (loadedPath != null) {
+            log.trace("Library {} previously loaded for this classloader @ {}", libraryPath, loadedPath);
+            return loadedPath;
+        }
+
+        try {
             log.trace("System.load({})", libraryPath);
             System.load(libraryPath);
-            log.debug("Loaded library [{}] @ {}", name, libraryPath);
-        } else {
-            log.trace("Falling back to System.loadLibrary(" + name + ")");
-            // fallback to java method
-            System.loadLibrary(name);
-            log.debug("Loaded library [{}]", name);
+            return libraryPath;
+        } catch (UnsatisfiedLinkError e) {
+            if (e.getMessage() == null || !e.getMessage().contains("already loaded in another classloader")) {
+                throw e;
+            }
+            log.debug("Library [{}] already loaded in another classloader (will load a copy for this classloader)", libraryPath);
+        }
+
+        final File loaderFile = materializeForClassLoader(file);
+        log.trace("System.load({})", loaderFile);
+        System.load(loaderFile.getAbsolutePath());
+        LOADED_LIBRARIES.put(libraryPath, loaderFile.getAbsolutePath());
+
+        // the loaded library stays mapped, so on posix systems, we can remove the copy right away (and not leak it
+        // with every redeploy). windows won't let us, but stale copies are pruned the next time we materialize
+        if (PlatformInfo.detectOperatingSystem() != OperatingSystem.WINDOWS) {
+            loaderFile.delete();
+            loaderFile.getParentFile().delete();
+        }
+
+        return loaderFile.getAbsolutePath();
+    }
+
+    /**
+     * Materializes the file as .jne-loaders/[token]/[name] in a temp dir (a hard link where possible), where the token
+     * is unique to this copy of JNE, so the library keeps its name but the jvm sees a distinct path. The dir the file
+     * was found in is never used, since it may be a resource dir or an extract dir shared with other apps.
+     */
+    static private File materializeForClassLoader(File file) {
+        final String fileName = file.getName();
+        final List<File> baseDirs = new ArrayList<>();
+        if (TEMP_DIRECTORY != null) {
+            baseDirs.add(TEMP_DIRECTORY);
+        }
+        baseDirs.add(new File(System.getProperty("java.io.tmpdir")));
+
+        for (File baseDir : baseDirs) {
+            final File loadersDir = new File(baseDir, ".jne-loaders");
+            if (PlatformInfo.detectOperatingSystem() == OperatingSystem.WINDOWS) {
+                pruneClassLoaderDirs(loadersDir);
+            }
+            final File loaderFile = new File(new File(loadersDir, CLASSLOADER_TOKEN), fileName);
+            try {
+                Files.createDirectories(loaderFile.getParentFile().toPath());
+                final FileMaterializer.Method method = new FileMaterializer(PlatformInfo.detectOperatingSystem())
+                    .materialize(file.toPath(), loaderFile.toPath());
+                log.debug("Materialized [{}] for this classloader via {}", loaderFile, method);
+                loaderFile.deleteOnExit();
+                loaderFile.getParentFile().deleteOnExit();
+                return loaderFile;
+            } catch (IOException e) {
+                log.debug("Unable to materialize [{}] in [{}]: {}", fileName, loadersDir, e.getMessage());
+            }
+        }
+
+        throw new UnsatisfiedLinkError("Library " + file + " already loaded in another classloader and we were unable to materialize a copy of it");
+    }
+
+    /**
+     * Deletes the dirs of other classloaders that are no longer in use (windows won't let us delete a dll while its
+     * classloader is alive, so anything we are able to delete is stale).
+     */
+    static private void pruneClassLoaderDirs(File loadersDir) {
+        final File[] dirs = loadersDir.listFiles();
+        if (dirs == null) {
+            return;
+        }
+        for (File dir : dirs) {
+            if (dir.getName().equals(CLASSLOADER_TOKEN)) {
+                continue;
+            }
+            final File[] files = dir.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    f.delete();     // fails if still loaded on windows
+                }
+            }
+            dir.delete();           // fails if not empty
+        }
+    }
+
+    /**
+     * Loads the library straight from the jar into an anonymous memory file, so nothing is ever extracted to disk.
+     *
+     * @return true if loaded, false if the library should be found (and extracted) the regular way
+     */
+    static private boolean loadLibraryFromMemory(String name, Options options) {
+        final NativeTarget nativeTarget = resolveNativeTarget(options);
+        final String fileName = nativeTarget.resolveLibraryFileName(name);
+
+        // resources that are already plain files on disk are simply loaded in place by the regular way
+        final URL url = findResource(fileName, options, nativeTarget.getOperatingSystem(), nativeTarget.getHardwareArchitecture(), nativeTarget.getAbi());
+        if (url == null || !url.getProtocol().equals("jar")) {
+            return false;
+        }
+
+        // each memfd is a new file, so the jvm would happily load the same library twice if we let it
+        final String key = url.toString();
+        if (MEMORY_LOADED_LIBRARIES.containsKey(key)) {
+            log.trace("Library [{}] already loaded from memory @ {}", name, MEMORY_LOADED_LIBRARIES.get(key));
+            LookupReport.cacheDecision(LookupReport.CacheDecision.MEMORY);
+            return true;
+        }
+
+        final long loadStart = System.nanoTime();
+        final Object event = JneEvents.beginLoadLibrary();
+        try {
+            final String path = MemoryLibraryLoader.load(url, fileName);
+            MEMORY_LOADED_LIBRARIES.put(key, path);
+            log.debug("Loaded library [{}] from memory @ {}", name, path);
+            LookupReport.phase(LookupReport.Phase.LOAD, loadStart);
+            LookupReport.cacheDecision(LookupReport.CacheDecision.MEMORY);
+            JneEvents.endLoadLibrary(event, name, path, true);
+            JneStats.getInstance().loaded(name, path);
+            final JneListener listener = JneListeners.resolve(options);
+            if (listener != null) {
+                listener.onLoad(name, path, System.nanoTime() - loadStart);
+            }
+            return true;
+        } catch (IOException | RuntimeException | UnsatisfiedLinkError e) {
+            // not a failure to load the library, since we'll extract it instead
+            log.debug("Unable to load library [{}] from memory (will extract instead): {}", name, e.getMessage());
+            JneEvents.endLoadLibrary(event, name, url.toString(), false);
+            return false;
+        }
+    }
+
+    static private void lookupFailed(JneListener listener, long startNanos, String type, String name, Throwable error) {
+        if (listener != null) {
+            listener.onLookupFailure(type, name, error);
+            listener.onLookupEnd(type, name, null, System.nanoTime() - startNanos);
+        }
+    }
+
+    static private File lookedUp(JneListener listener, long startNanos, String type, String name, File file) {
+        JneStats.getInstance().lookup(file);
+        if (listener != null) {
+            listener.onLookupEnd(type, name, file, System.nanoTime() - startNanos);
+        }
+        return file;
+    }
+
+    /**
+     * Same as findExecutable, but explains how the executable was found (or not), including the resource paths
+     * tried, whether a previously extracted file was reused, and the time spent in each phase.
+     *
+     * @return the report, whose file is the executable or null if no executable found
+     */
+    static public LookupReport explainExecutable(String name, Options options) throws IOException {
+        final LookupReport report = LookupReport.begin("executable", name);
+        try {
+            report.setFile(findExecutable(name, options));
+        } finally {
+            LookupReport.end(report);
+        }
+        return report;
+    }
+
+    /**
+     * Same as findLibrary, but explains how the library was found (or not).
+     *
+     * @return the report, whose file is the library or null if no library found
+     */
+    static public LookupReport explainLibrary(String name, Options options) {
+        final LookupReport report = LookupReport.begin("library", name);
+        try {
+            report.setFile(findLibrary(name, options));
+        } finally {
+            LookupReport.end(report);
+        }
+        return report;
+    }
+
+    /**
+     * Same as loadLibrary, but explains how the library was found (or not) and loaded.
+     *
+     * @return the report, whose file is the library (or null if loaded from memory or via System.loadLibrary)
+     */
+    static public LookupReport explainLoadLibrary(String name, Options options) {
+        final LookupReport report = LookupReport.begin("library", name);
+        try {
+            loadLibrary(name, options);
+        } finally {
+            LookupReport.end(report);
         }
+        return report;
+    }
+
+    /**
+     * Same as findFile, but explains how the file was found (or not).
+     *
+     * @return the report, whose file is the file or null if no file found
+     */
+    static public LookupReport explainFile(String name, Options options) throws IOException {
+        final LookupReport report = LookupReport.begin("file", name);
+        try {
+            report.setFile(findFile(name, options));
+        } finally {
+            LookupReport.end(report);
+        }
+        return report;
     }
 
     /**
@@ -292,7 +647,7 @@ public class JNE {
      * @throws ExtractException Thrown if a runtime exception occurs while
      * finding or extracting the executable.
      */
-    synchronized static public File findFile(String name) throws IOException {
+    static public File findFile(String name) throws IOException {
         return JNE.findFile(name, null);
     }
 
@@ -313,11 +668,38 @@ public class JNE {
      * @throws ExtractException Thrown if a runtime exception occurs while
      * finding or extracting the executable.
      */
-    synchronized static public File findFile(String name, Options options) throws IOException {
+    static public File findFile(String name, Options options) throws IOException {
         if (options == null) {
             options = Options.DEFAULT;
         }
 
+        final Object event = JneEvents.beginLookup();
+        final long lookupStart = System.nanoTime();
+        final JneListener listener = JneListeners.resolve(options);
+        if (listener != null) {
+            listener.onLookupStart("file", name);
+        }
+
+        File file = null;
+        try {
+            file = lookupFile(name, options);
+        } catch (IOException | RuntimeException | Error e) {
+            lookupFailed(listener, lookupStart, "file", name, e);
+            throw e;
+        } finally {
+            // even if the lookup failed, so its event is still committed
+            JneEvents.endLookup(event, "file", name, file);
+        }
+
+        return lookedUp(listener, lookupStart, "file", name, file);
+    }
+
+    static private File lookupFile(String name, Options options) throws IOException {
+        final File preparedFile = findPrepared("file", name, options);
+        if (preparedFile != null) {
+            return preparedFile;
+        }
+
         final NativeTarget nativeTarget = resolveNativeTarget(options);
 
         // 1. try with os & arch
@@ -339,14 +721,14 @@ public class JNE {
     /**
      * Same as findFile but throws an exception if the file was not found.
      */
-    synchronized static public File requireFile(String name) throws IOException {
+    static public File requireFile(String name) throws IOException {
         return JNE.requireFile(name, null);
     }
 
     /**
      * Same as findFile but throws an exception if the file was not found.
      */
-    synchronized static public File requireFile(String name, Options options) throws IOException {
+    static public File requireFile(String name, Options options) throws IOException {
         File file = findFile(name, options);
         if (file == null) {
             throw new ResourceNotFoundException("Resource file " + name + " not found");
@@ -368,7 +750,7 @@ public class JNE {
      * @throws IOException
      * @throws ExtractException
      */
-    synchronized static public File find(String fileName, String targetFileName, Options options, OperatingSystem os, HardwareArchitecture arch, ABI abi) throws IOException {
+    static public File find(String fileName, String targetFileName, Options options, OperatingSystem os, HardwareArchitecture arch, ABI abi) throws IOException {
         if (options == null) {
             options = Options.DEFAULT;
         }
@@ -388,21 +770,8 @@ public class JNE {
 
         log.trace("Finding fileName [" + fileName + "] targetFileName [" + targetFileName + "] os [" + os + "] arch [" + arch + "] abi [" + abi + "]...");
 
-        // Full matrix of os + arch resources we will search for, in prioritized order
-        final NativeTarget nativeTarget = NativeTarget.of(os, arch, abi);
-        final List<String> resourcePaths = nativeTarget.resolveResourcePaths(options.getResourcePrefix(), fileName);
-        URL url = null;
-        for (String resourcePath : resourcePaths) {
-            log.trace("Finding resource [" + resourcePath + "]");
-
-            url = JNE.class.getResource(resourcePath);
-            if (url != null) {
-                break;      // we are done
-            }
-        }
-
+        final URL url = findResource(fileName, options, os, arch, abi);
         if (url == null) {
-            log.debug("Unable to locate any resource of {}", resourcePaths);
             return null;
         }
 
@@ -417,13 +786,23 @@ public class JNE {
             // executables changed from the previous app run -- we do this with
             // a very basic "hash" for an extracted resource. We basically combine
             // the path of the jar and manifest version of when the exe was extracted
+            final long hashStart = System.nanoTime();
             String versionHash = getJarVersionHashForResource(url);
+            LookupReport.phase(LookupReport.Phase.HASH, hashStart);
             log.trace("Version hash [" + versionHash + "]");
 
             // where should we extract the executable?
+            final long dirStart = System.nanoTime();
+            if (options.isMemoryExtract()) {
+                final File memoryFile = verifyOrExtractToMemory(url, targetFileName, versionHash, options, dirStart);
+                if (memoryFile != null) {
+                    return memoryFile;
+                }
+            }
+
             File d = options.getExtractDir();
             if (d == null) {
-                d = getOrCreateTempDirectory(options.isCleanupExtracted());
+                d = getOrCreateTempDirectory(options);
             } else {
                 // does the extract dir exist?
                 if (!d.exists()) {
@@ -432,16 +811,58 @@ public class JNE {
                 if (!d.isDirectory()) {
                     throw new ExtractException("Extract dir [" + d + "] is not a directory");
                 }
+                // we honor the extract dir the user asked for, but it won't end well if its mounted noexec
+                if (!getLinuxMountInfo().isExecutable(d.toPath())) {
+                    log.warn("Extract dir [{}] is on a filesystem mounted noexec (extracted files will likely fail to load or execute)", d);
+                }
             }
 
+            LookupReport.phase(LookupReport.Phase.DIR, dirStart);
+            JneStats.getInstance().extractDir(d);
             log.trace("Using dir [" + d + "]");
 
-            // create both target exe and hash files
-            File exeFile = new File(d, targetFileName);
-            File exeHashFile = new File(exeFile.getAbsolutePath() + ".hash");
+            return verifyOrExtract(url, d, targetFileName, versionHash, options);
+        } else if (url.getProtocol().equals("file")) {
+            log.trace("Resource in file");
+            try {
+                File exeFile = new File(url.toURI());
+                if (!exeFile.canExecute()) {
+                    log.trace("Setting file to executable");
+                    if (!exeFile.setExecutable(true)) {
+                        log.debug("Unable to cleanly set file to executable");
+                        throw new ExtractException("Executable was found but it cannot be set to execute [" + exeFile.getAbsolutePath() + "]");
+                    }
+                }
+                LookupReport.cacheDecision(LookupReport.CacheDecision.IN_PLACE);
+                log.trace("Returning [" + exeFile + "]");
+                return exeFile;
+            } catch (URISyntaxException e) {
+                log.debug("URL syntax error");
+                throw new ExtractException("Unable to create executable file from uri", e);
+            }
+        } else {
+            throw new ExtractException("Unsupported executable resource protocol [" + url.getProtocol() + "]");
+        }
+    }
+
+    /**
+     * Verifies the previously extracted file in the dir (if any) is still current, otherwise extracts it. Other
+     * threads, and other copies of JNE loaded in the jvm (e.g. shaded into other libraries), may be extracting to the
+     * same dir, so we lock on the interned path of the file. It's the one monitor all of them will agree on, regardless
+     * of their version, and different files are still extracted in parallel.
+     */
+    static private File verifyOrExtract(URL url, File d, String targetFileName, String versionHash, Options options) throws IOException {
+        // create both target exe and hash files
+        final File exeFile = new File(d, targetFileName);
+        final File exeHashFile = new File(exeFile.getAbsolutePath() + ".hash");
+
+        synchronized (("jne.extract:" + exeFile.getAbsolutePath()).intern()) {
+            final long verifyStart = System.nanoTime();
+            final JneListener listener = JneListeners.resolve(options);
 
             // if file already exists verify its hash
-            if (exeFile.exists()) {
+            final boolean stale = exeFile.exists();
+            if (stale) {
                 log.trace("File already exists; verifying if hash matches");
                 // verify the version hash still matches
                 if (!exeHashFile.exists()) {
@@ -451,6 +872,13 @@ public class JNE {
                     // hash file exists, verify it matches what we expect
                     String existingHash = readFileToString(exeHashFile);
                     if (existingHash == null || !existingHash.equals(versionHash)) {
+                        if (ResourceExtractor.isSameContent(url, exeFile)) {
+                            // e.g. extracted by another (shaded) copy of JNE from a different jar, which may have
+                            // already loaded it, so we must not replace it when the bytes are exactly the same
+                            log.trace("Hash mismatch, but size & crc32 match; will use existing file");
+                            cacheValidated(exeFile, LookupReport.CacheDecision.CONTENT_MATCH, verifyStart, listener);
+                            return exeFile;
+                        }
                         log.trace("Hash mismatch; deleting files; will freshly extract file");
                         // hash mismatch -- will force an overwrite of both files
                         exeFile.delete();
@@ -459,16 +887,24 @@ public class JNE {
                         log.trace("Hash matches; will use existing file");
                         // hash match (exeFile and exeHashFile are both perrrrfect)
                         //System.out.println("exe already extracted AND hash matched -- reusing same exe");
+                        cacheValidated(exeFile, LookupReport.CacheDecision.HASH_HIT, verifyStart, listener);
                         return exeFile;
                     }
                 }
             }
 
+            cacheValidated(exeFile, stale ? LookupReport.CacheDecision.STALE : LookupReport.CacheDecision.MISS, verifyStart, listener);
+
             // does exe already exist? (previously extracted)
             if (!exeFile.exists()) {
+                final long extractStart = System.nanoTime();
+                final Object event = JneEvents.beginExtract();
+                if (listener != null) {
+                    listener.onExtractStart(url, exeFile);
+                }
                 try {
                     log.trace("Extracting [" + url + "] to [" + exeFile + "]...");
-                    extractTo(url, exeFile);
+                    extractOrMaterialize(url, exeFile, options);
 
                     // set file to "executable"
                     log.trace("Setting to executable");
@@ -477,6 +913,12 @@ public class JNE {
                     // create corrosponding hash file
                     log.trace("Writing hash file");
                     writeStringToFile(exeHashFile, versionHash);
+                    LookupReport.phase(LookupReport.Phase.EXTRACT, extractStart);
+                    JneEvents.endExtract(event, url, exeFile, exeFile.length());
+                    JneStats.getInstance().extracted(exeFile.length(), System.nanoTime() - extractStart);
+                    if (listener != null) {
+                        listener.onExtractEnd(url, exeFile, exeFile.length(), System.nanoTime() - extractStart);
+                    }
 
                     // schedule files for deletion?
                     if (options.isCleanupExtracted()) {
@@ -492,44 +934,198 @@ public class JNE {
 
             log.trace("Returning [" + exeFile + "]");
             return exeFile;
-        } else if (url.getProtocol().equals("file")) {
-            log.trace("Resource in file");
+        }
+    }
+
+    static private void cacheValidated(File file, LookupReport.CacheDecision cacheDecision, long verifyStart, JneListener listener) {
+        LookupReport.phase(LookupReport.Phase.VERIFY, verifyStart);
+        LookupReport.cacheDecision(cacheDecision);
+        switch (cacheDecision) {
+            case STALE:
+                JneStats.getInstance().cacheStale();
+                break;
+            case MISS:
+                JneStats.getInstance().cacheMiss();
+                break;
+            default:
+                JneStats.getInstance().cacheHit();
+                break;
+        }
+        if (listener != null) {
+            listener.onCacheValidated(file, cacheDecision);
+        }
+    }
+
+    /**
+     * Finds the file in the prepared dir (if one is set) with a single lookup in its (memoized) manifest. A manifest
+     * prepared for a different target than the one we're resolving (e.g. an image built for arm64 running on x64) is
+     * ignored.
+     *
+     * @return the file or null if not prepared
+     */
+    static private File findPrepared(String type, String name, Options options) {
+        final File preparedDir = options.getPreparedDir();
+        if (preparedDir == null) {
+            return null;
+        }
+
+        final long start = System.nanoTime();
+        final PreparedManifest manifest = PREPARED_MANIFESTS.computeIfAbsent(preparedDir, dir -> {
             try {
-                File exeFile = new File(url.toURI());
-                if (!exeFile.canExecute()) {
-                    log.trace("Setting file to executable");
-                    if (!exeFile.setExecutable(true)) {
-                        log.debug("Unable to cleanly set file to executable");
-                        throw new ExtractException("Executable was found but it cannot be set to execute [" + exeFile.getAbsolutePath() + "]");
-                    }
-                }
-                log.trace("Returning [" + exeFile + "]");
-                return exeFile;
-            } catch (URISyntaxException e) {
-                log.debug("URL syntax error");
-                throw new ExtractException("Unable to create executable file from uri", e);
+                return PreparedManifest.load(dir);
+            } catch (IOException e) {
+                log.warn("Unable to load prepared manifest in [{}] (will find natives the regular way): {}", dir, e.getMessage());
+                return new PreparedManifest(dir, null);
             }
+        });
+
+        if (!isPreparedForTarget(manifest, options)) {
+            LookupReport.phase(LookupReport.Phase.PREPARED, start);
+            return null;
+        }
+
+        final File file = manifest.find(type, name);
+        LookupReport.phase(LookupReport.Phase.PREPARED, start);
+        if (file == null) {
+            log.debug("No prepared {} [{}] in [{}] (will find it the regular way)", type, name, preparedDir);
         } else {
-            throw new ExtractException("Unsupported executable resource protocol [" + url.getProtocol() + "]");
+            LookupReport.cacheDecision(LookupReport.CacheDecision.PREPARED);
         }
+        return file;
     }
 
-    static private void extractTo(URL url, File file) throws IOException {
-        final InputStream in = url.openStream();
+    static private boolean isPreparedForTarget(PreparedManifest manifest, Options options) {
+        if (manifest.getTarget() == null) {
+            return true;
+        }
+
+        final String target;
         try {
-            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file, false))) {
-                int len;
-                byte[] buffer = new byte[8192];
-                while ((len = in.read(buffer)) > -1) {
-                    out.write(buffer, 0, len);
-                }
-                out.flush();
+            target = resolveNativeTarget(options).toJneTarget();
+        } catch (RuntimeException e) {
+            log.debug("Unable to resolve target to compare w/ prepared manifest in [{}] (will trust it): {}", manifest.getDir(), e.getMessage());
+            return true;
+        }
+
+        if (manifest.getTarget().equals(target)) {
+            return true;
+        }
+
+        // only warn once, since every lookup against this dir is ignored
+        if (PREPARED_TARGET_MISMATCHES.putIfAbsent(manifest.getDir().getAbsolutePath() + "|" + target, Boolean.TRUE) == null) {
+            log.warn("Prepared manifest in [{}] is for target {} rather than {} (will find natives the regular way)",
+                manifest.getDir(), manifest.getTarget(), target);
+        } else {
+            log.debug("Prepared manifest in [{}] is for target {} rather than {}", manifest.getDir(), manifest.getTarget(), target);
+        }
+        return false;
+    }
+
+    /**
+     * Searches the full matrix of os + arch resources for the file name, in prioritized order.
+     *
+     * @return the url of the first resource found or null if none were found
+     */
+    static private URL findResource(String fileName, Options options, OperatingSystem os, HardwareArchitecture arch, ABI abi) {
+        final long start = System.nanoTime();
+        final NativeTarget nativeTarget = NativeTarget.of(os, arch, abi);
+        final List<String> resourcePaths = nativeTarget.resolveResourcePaths(options.getResourcePrefix(), fileName);
+        for (String resourcePath : resourcePaths) {
+            log.trace("Finding resource [" + resourcePath + "]");
+
+            final URL url = JNE.class.getResource(resourcePath);
+            LookupReport.tried(resourcePath, url);
+            if (url != null) {
+                LookupReport.phase(LookupReport.Phase.RESOLVE, start);
+                return url;
             }
-        } finally {
-            if (in != null) {
-                in.close();
+        }
+
+        LookupReport.phase(LookupReport.Phase.RESOLVE, start);
+
+        log.debug("Unable to locate any resource of {}", resourcePaths);
+        return null;
+    }
+
+    /**
+     * Extracts the resource to the file, or if a shared cache dir is configured, materializes it from the shared
+     * cache (extracting it into the cache first if needed).
+     */
+    static private void extractOrMaterialize(URL url, File file, Options options) throws IOException {
+        if (options.getSharedCacheDir() != null) {
+            try {
+                final File sharedFile = getOrExtractSharedFile(url, file.getName(), options.getSharedCacheDir());
+                final FileMaterializer.Method method = new FileMaterializer(PlatformInfo.detectOperatingSystem())
+                    .materialize(sharedFile.toPath(), file.toPath());
+                log.debug("Materialized [{}] from shared cache [{}] via {}", file, sharedFile, method);
+                LookupReport.copied(method.name(), method == FileMaterializer.Method.COPY ? file.length() : 0L);
+                return;
+            } catch (IOException e) {
+                log.debug("Unable to use shared cache dir [{}] (will extract directly): {}", options.getSharedCacheDir(), e.getMessage());
+            }
+        }
+
+        extractTo(url, file);
+    }
+
+    /**
+     * Files in the shared cache are keyed by the size and CRC32 of the jar entry, so every jar (and every app) with
+     * the same content shares a single copy. They are extracted to a temp file and atomically moved into place, so a
+     * file present in the cache is always complete, even with other processes extracting concurrently. Since anyone
+     * with access to the cache could have changed a file, its CRC32 is verified once per process before it's used.
+     */
+    static File getOrExtractSharedFile(URL url, String fileName, File sharedCacheDir) throws IOException {
+        final JarEntry jarEntry = ((JarURLConnection)url.openConnection()).getJarEntry();
+        final long size = jarEntry.getSize();
+        final long crc = jarEntry.getCrc();
+        if (size < 0 || crc < 0) {
+            throw new IOException("Jar entry " + jarEntry.getName() + " has no size or crc");
+        }
+
+        final File sharedDir = new File(sharedCacheDir, String.format("%08x-%d", crc, size));
+        final File sharedFile = new File(sharedDir, fileName);
+
+        if (sharedFile.isFile() && sharedFile.length() == size) {
+            final String verifiedKey = sharedFile.getAbsolutePath() + ":" + sharedFile.lastModified();
+            if (VERIFIED_SHARED_FILES.containsKey(verifiedKey)) {
+                log.trace("Shared file [{}] already exists", sharedFile);
+                return sharedFile;
+            }
+            if (ResourceExtractor.isSameContent(url, sharedFile)) {
+                log.trace("Shared file [{}] already exists (verified crc)", sharedFile);
+                VERIFIED_SHARED_FILES.put(verifiedKey, Boolean.TRUE);
+                return sharedFile;
             }
+            log.warn("Shared file [{}] does not match the crc of its jar entry (will extract it again)", sharedFile);
         }
+
+        Files.createDirectories(sharedDir.toPath());
+
+        final File tempFile = File.createTempFile(fileName + ".", ".tmp", sharedDir);
+        try {
+            log.trace("Extracting [{}] to shared file [{}]...", url, sharedFile);
+            extractTo(url, tempFile);
+            if (tempFile.length() != size) {
+                throw new IOException("Extracted " + tempFile.length() + " bytes but expected " + size);
+            }
+            // hard links share the permissions, so the shared copy must already be executable
+            tempFile.setExecutable(true, false);
+            tempFile.setReadable(true, false);
+            Files.move(tempFile.toPath(), sharedFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+
+        // extracted from the jar by us, so there is nothing to verify
+        VERIFIED_SHARED_FILES.put(sharedFile.getAbsolutePath() + ":" + sharedFile.lastModified(), Boolean.TRUE);
+
+        return sharedFile;
+    }
+
+    static private void extractTo(URL url, File file) throws IOException {
+        final ResourceExtractor.Method method = ResourceExtractor.extract(url, file);
+        log.trace("Extracted [{}] via {}", file, method);
+        LookupReport.copied(method.name(), file.length());
     }
 
     static private String readFileToString(File file) throws IOException {
@@ -578,43 +1174,259 @@ public class JNE {
     }
 
     /**
-     * Attempts to create a temporary directory that did not exist previously.
+     * Attempts to create a temporary directory that did not exist previously, in the first candidate directory that
+     * is not mounted noexec and that we are able to create a directory in.
      */
-    static private File getOrCreateTempDirectory(boolean deleteOnExit) throws ExtractException {
+    static private File getOrCreateTempDirectory(Options options) throws ExtractException {
         // return the single instance if already created
         if ((TEMP_DIRECTORY != null) && TEMP_DIRECTORY.exists()) {
             return TEMP_DIRECTORY;
         }
 
-        // use jvm supplied temp directory in case multiple jvms compete
-//        try {
-//            Path tempDirectory = Files.createTempDirectory("jne.");
-//            File tempDirectoryAsFile = tempDirectory.toFile();
-//            if (deleteOnExit) {
-//                tempDirectoryAsFile.deleteOnExit();
-//            }
-//            return tempDirectoryAsFile;
-//        } catch (IOException e) {
-//            throw new ExtractException("Unable to create temporary dir", e);
-//        }
-        
-        // use unique name to avoid race conditions
-        try {
-            Path baseDir = Paths.get(System.getProperty("java.io.tmpdir"));
-            Path tempDirectory = baseDir.resolve("jne." + UUID.randomUUID().toString());
-            Files.createDirectories(tempDirectory);
-            File tempDirectoryAsFile = tempDirectory.toFile();
-            if (deleteOnExit) {
-                tempDirectoryAsFile.deleteOnExit();
+        List<File> candidateDirs = options.getExtractDirCandidates();
+        if (candidateDirs == null || candidateDirs.isEmpty()) {
+            candidateDirs = Collections.singletonList(new File(System.getProperty("java.io.tmpdir")));
+        }
+
+        final List<File> executableDirs = filterExecutableDirs(candidateDirs, getLinuxMountInfo());
+
+        // the system properties are the one thing every copy of JNE in the jvm shares (and locks on)
+        synchronized (System.getProperties()) {
+            File tempDirectory = getProcessDirectory(SYSPROP_PROCESS_EXTRACT_DIR);
+            if (tempDirectory != null) {
+                log.debug("Using temp dir [{}] shared by another copy of JNE in this jvm", tempDirectory);
+            } else {
+                tempDirectory = createUniqueDirectory(executableDirs, options.isCleanupExtracted());
+                if (tempDirectory == null) {
+                    throw new ExtractException("Unable to create temporary dir in any of " + candidateDirs + " (noexec mounts are skipped)");
+                }
+                System.setProperty(SYSPROP_PROCESS_EXTRACT_DIR, tempDirectory.getAbsolutePath());
             }
+
             // save temp directory so its only extracted once
-            TEMP_DIRECTORY = tempDirectoryAsFile;
+            TEMP_DIRECTORY = tempDirectory;
             return TEMP_DIRECTORY;
-        } catch (IOException e) {
-            throw new ExtractException("Unable to create temporary dir", e);
         }
     }
 
+    /**
+     * Attempts to create a temporary directory on a memory-backed filesystem that is not mounted noexec.
+     *
+     * @return the directory or null if no memory-backed filesystem is available
+     */
+    static private File getOrCreateMemoryTempDirectory(Options options) {
+        // return the single instance if already created
+        if ((MEMORY_TEMP_DIRECTORY != null) && MEMORY_TEMP_DIRECTORY.exists()) {
+            return MEMORY_TEMP_DIRECTORY;
+        }
+
+        final List<File> candidateDirs = new ArrayList<>();
+        candidateDirs.add(new File("/dev/shm"));
+        final String xdgRuntimeDir = System.getenv("XDG_RUNTIME_DIR");
+        if (xdgRuntimeDir != null && !xdgRuntimeDir.isEmpty()) {
+            candidateDirs.add(new File(xdgRuntimeDir));
+        }
+
+        final List<File> memoryDirs = filterMemoryBackedDirs(filterExecutableDirs(candidateDirs, getLinuxMountInfo()), getLinuxMountInfo());
+
+        synchronized (System.getProperties()) {
+            File memoryTempDirectory = getProcessDirectory(SYSPROP_PROCESS_MEMORY_EXTRACT_DIR);
+            if (memoryTempDirectory == null) {
+                memoryTempDirectory = createUniqueDirectory(memoryDirs, options.isCleanupExtracted());
+                if (memoryTempDirectory != null) {
+                    System.setProperty(SYSPROP_PROCESS_MEMORY_EXTRACT_DIR, memoryTempDirectory.getAbsolutePath());
+                }
+            }
+
+            MEMORY_TEMP_DIRECTORY = memoryTempDirectory;
+            return MEMORY_TEMP_DIRECTORY;
+        }
+    }
+
+    /**
+     * The directory already created (and published as a system property) by this or another copy of JNE in the jvm.
+     *
+     * @return the directory or null if none was published or it no longer exists
+     */
+    static File getProcessDirectory(String key) {
+        final String value = System.getProperty(key);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        final File dir = new File(value);
+        return dir.isDirectory() ? dir : null;
+    }
+
+    /**
+     * Verifies or extracts the resource in the memory-backed directory, as long as doing so would not exceed the
+     * per-process memory extract budget.
+     *
+     * @return the file or null if the regular extract directory should be used
+     */
+    static private File verifyOrExtractToMemory(URL url, String targetFileName, String versionHash, Options options, long dirStart) throws IOException {
+        final File memoryDir = getOrCreateMemoryTempDirectory(options);
+        if (memoryDir == null) {
+            log.trace("No memory-backed dir available; will use regular extract dir");
+            return null;
+        }
+
+        return verifyOrExtractToMemory(url, memoryDir, targetFileName, versionHash, options, dirStart);
+    }
+
+    /**
+     * The budget is only reserved while holding the same per-file lock as verifyOrExtract (so concurrent extractions
+     * of the same file count once). A file already in memory was charged when extracted, so only what a (stale) file
+     * would grow by is reserved up front, and the charge is settled to the size of the file once verified or
+     * extracted (or released if extraction fails).
+     */
+    static File verifyOrExtractToMemory(URL url, File memoryDir, String targetFileName, String versionHash, Options options, long dirStart) throws IOException {
+        final File memoryFile = new File(memoryDir, targetFileName);
+        synchronized (("jne.extract:" + memoryFile.getAbsolutePath()).intern()) {
+            // previously extracted to memory (its hash will still be verified, and it may be replaced if stale)
+            final long existingSize = memoryFile.exists() ? memoryFile.length() : 0L;
+            final long size = url.openConnection().getContentLengthLong();
+            if (size < 0) {
+                log.trace("Resource size unknown; will use regular extract dir");
+                return null;
+            }
+            final long reserved = Math.max(0L, size - existingSize);
+            if (!reserveMemoryExtractBytes(reserved, options.getMemoryExtractBudget())) {
+                log.debug("Resource [{}] of {} bytes would exceed memory extract budget of {} bytes; will use regular extract dir",
+                    targetFileName, size, options.getMemoryExtractBudget());
+                return null;
+            }
+
+            LookupReport.phase(LookupReport.Phase.DIR, dirStart);
+            JneStats.getInstance().extractDir(memoryDir);
+            log.trace("Using dir [" + memoryDir + "]");
+
+            final File file;
+            try {
+                file = verifyOrExtract(url, memoryDir, targetFileName, versionHash, options);
+            } catch (IOException | RuntimeException e) {
+                releaseMemoryExtractBytes(reserved);
+                throw e;
+            }
+
+            // settle what was charged (the existing file plus the reservation) to what is now in memory
+            final long charged = existingSize + reserved;
+            final long actual = file.length();
+            if (actual < charged) {
+                releaseMemoryExtractBytes(charged - actual);
+            } else if (actual > charged) {
+                reserveMemoryExtractBytes(actual - charged, Long.MAX_VALUE);
+            }
+            return file;
+        }
+    }
+
+    /**
+     * The bytes extracted to the memory-backed directory are tracked alongside it as a system property, so every
+     * copy of JNE in the jvm (which share that directory) draws from the same budget.
+     */
+    static boolean reserveMemoryExtractBytes(long size, long budget) {
+        synchronized (System.getProperties()) {
+            final long used = getMemoryExtractedBytes();
+            if (used + size > budget) {
+                return false;
+            }
+            System.setProperty(SYSPROP_PROCESS_MEMORY_EXTRACT_BYTES, Long.toString(used + size));
+            return true;
+        }
+    }
+
+    static void releaseMemoryExtractBytes(long size) {
+        if (size <= 0L) {
+            return;
+        }
+        synchronized (System.getProperties()) {
+            final long used = getMemoryExtractedBytes();
+            System.setProperty(SYSPROP_PROCESS_MEMORY_EXTRACT_BYTES, Long.toString(Math.max(0L, used - size)));
+        }
+    }
+
+    static long getMemoryExtractedBytes() {
+        final String value = System.getProperty(SYSPROP_PROCESS_MEMORY_EXTRACT_BYTES);
+        if (value == null || value.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Creates a uniquely named directory (to avoid race conditions) in the first base directory we are able to.
+     *
+     * @return the directory or null if it could not be created in any of the base dirs
+     */
+    static private File createUniqueDirectory(List<File> baseDirs, boolean deleteOnExit) {
+        for (File baseDir : baseDirs) {
+            try {
+                Path tempDirectory = baseDir.toPath().resolve("jne." + UUID.randomUUID().toString());
+                Files.createDirectories(tempDirectory);
+                File tempDirectoryAsFile = tempDirectory.toFile();
+                if (deleteOnExit) {
+                    tempDirectoryAsFile.deleteOnExit();
+                }
+                log.debug("Created temp dir [{}]", tempDirectoryAsFile);
+                return tempDirectoryAsFile;
+            } catch (IOException e) {
+                log.debug("Unable to create temp dir in [{}]: {}", baseDir, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Filters the candidate directories down to those that are not on a filesystem mounted noexec.
+     */
+    static List<File> filterExecutableDirs(List<File> candidateDirs, LinuxMountInfo mountInfo) {
+        final List<File> executableDirs = new ArrayList<>();
+        for (File candidateDir : candidateDirs) {
+            if (mountInfo.isExecutable(candidateDir.toPath())) {
+                executableDirs.add(candidateDir);
+            } else {
+                log.debug("Skipping candidate temp dir [{}] (mounted noexec)", candidateDir);
+            }
+        }
+        return executableDirs;
+    }
+
+    /**
+     * Filters the candidate directories down to those that are on a memory-backed filesystem (e.g. tmpfs).
+     */
+    static List<File> filterMemoryBackedDirs(List<File> candidateDirs, LinuxMountInfo mountInfo) {
+        final List<File> memoryDirs = new ArrayList<>();
+        for (File candidateDir : candidateDirs) {
+            if (mountInfo.isMemoryBacked(candidateDir.toPath())) {
+                memoryDirs.add(candidateDir);
+            } else {
+                log.debug("Skipping candidate memory dir [{}] (not memory-backed)", candidateDir);
+            }
+        }
+        return memoryDirs;
+    }
+
+    /**
+     * Mount info is parsed only once (and only on linux). On other operating systems, there are no entries, so every
+     * directory is considered executable.
+     */
+    static private LinuxMountInfo getLinuxMountInfo() {
+        return LINUX_MOUNT_INFO.once(new MemoizedInitializer.Initializer<LinuxMountInfo>() {
+            @Override
+            public LinuxMountInfo init() {
+                LinuxMountInfo mountInfo = null;
+                if (PlatformInfo.detectOperatingSystem() == OperatingSystem.LINUX) {
+                    mountInfo = LinuxMountInfo.detect();
+                }
+                return mountInfo != null ? mountInfo : new LinuxMountInfo(Collections.emptyList());
+            }
+        });
+    }
+
     static private OperatingSystem resolveOperatingSystem(Options options) {
         if (options != null && options.getOperatingSystem() != null) {
             return options.getOperatingSystem();
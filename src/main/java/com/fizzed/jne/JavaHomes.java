@@ -20,6 +20,7 @@ package com.fizzed.jne;
  * #L%
  */
 
+import com.fizzed.jne.internal.JneEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -356,99 +357,152 @@ public class JavaHomes {
     }
 
     static public List<JavaHome> detect() throws Exception {
-        final NativeTarget nativeTarget = NativeTarget.detect();
-
-        log.trace("Detected operating system {}", nativeTarget.getOperatingSystem());
-
-        final Set<Path> maybeJavaHomes = new LinkedHashSet<>();
-
-        // this JVM's "java.home" it is executing with
-        locateJavaHomeFromThisJvm(maybeJavaHomes);
-
-        // the JAVA_HOME environment variable
-        locateJavaHomeFromJavaHomeEnvVar(maybeJavaHomes);
-
-        // the PATH environment variable will contain "bin" directories of the java home, or symlinked javas
-        locateJavaHomesFromPathEnvVar(maybeJavaHomes, nativeTarget);
-
-        switch (nativeTarget.getOperatingSystem()) {
-            case LINUX:
-                // Ubuntu 22.04 (e.g. /usr/lib/jvm/zulu21.28.85-ca-jdk21.0.0-linux_x64)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/usr/lib/jvm"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/usr/java"), ".*");
-                break;
-            case MACOS:
-                final Path contentsHomeDir = Paths.get("Contents/Home");
-                // e.g. /Library/Java/JavaVirtualMachines/zulu-11.jdk/Contents/Home
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/Library/Java/JavaVirtualMachines"), ".*", contentsHomeDir);
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/System/Library/Java/JavaVirtualMachines"), ".*", contentsHomeDir);
-                // e.g. /Library/Internet Plug-Ins/Java*/Contents/Home
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/Library/Internet Plug-Ins"), "Java.*", contentsHomeDir);
-                break;
-            case WINDOWS:
-                // Azul Zulu (e.g. C:\Program Files\Zulu\zulu-17)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Zulu"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Zulu"), ".*");
-                // Eclipse Adoptium/Temerin (e.g. C:\Program Files (x86)\Eclipse Adoptium\jdk-8.0.392.8-hotspot)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Eclipse Adoptium"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Eclipse Adoptium"), ".*");
-                // BellSoft/Liberica (e.g. C:\Program Files\BellSoft\LibericaJDK-11)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\BellSoft"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\BellSoft"), ".*");
-                // Amazon Corretto (e.g. C:\Program Files (x86)\Amazon Corretto\jdk1.8.0_392 OR C:\Program Files (x86)\Amazon Corretto\jre8)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Amazon Corretto"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Amazon Corretto"), ".*");
-                // Microsoft (e.g. C:\Program Files\Microsoft\jdk-21.0.1.12-hotspot)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Microsoft"), "jdk.*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Microsoft"), "jdk.*");
-                // SAP Machine (e.g. C:\Program Files\SapMachine\JDK\17)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\SapMachine\\JDK"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\SapMachine\\JDK"), ".*");
-                // IBM Semeru (e.g. C:\Program Files\Semeru\jdk-18.0.2.9-openj9)
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Semeru"), ".*");
-                locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Semeru"), ".*");
-                break;
-            case FREEBSD:
-            case OPENBSD:
-            case DRAGONFLYBSD:
-                Path usrLocalPath = Paths.get("/usr/local");
-                // FreeBSD (e.g. /usr/local/openjdk11)
-                locateJavaHomesFromDir(maybeJavaHomes, usrLocalPath, "openjdk.*");
-                // OpenBSD (e.g. /usr/local/jdk-17)
-                locateJavaHomesFromDir(maybeJavaHomes, usrLocalPath, "jdk.*");
-                break;
-            case NETBSD:
-                Path usrPkgJavaPath = Paths.get("/usr/pkg/java");
-                // /usr/pkg/java/openjdk21
-                locateJavaHomesFromDir(maybeJavaHomes, usrPkgJavaPath, "openjdk.*");
-                break;
-            case SOLARIS:
-                Path usrJdkInstancesPath = Paths.get("/usr/jdk/instances");
-                // /usr/jdk/instances/openjdk25
-                locateJavaHomesFromDir(maybeJavaHomes, usrJdkInstancesPath, "openjdk.*");
-                break;
-            case HAIKU:
-                Path bootSystemLibPath = Paths.get("/boot/system/lib");
-                // /boot/system/lib/openjdk21
-                locateJavaHomesFromDir(maybeJavaHomes, bootSystemLibPath, "openjdk.*");
-                break;
+        final long startTime = System.currentTimeMillis();
+        final Object event = JneEvents.beginJavaHomesDetect();
+        final List<JavaHome> javaHomes = new ArrayList<>();
+        try {
+            final NativeTarget nativeTarget = NativeTarget.detect();
+
+            log.trace("Detected operating system {}", nativeTarget.getOperatingSystem());
+
+            final Set<Path> maybeJavaHomes = new LinkedHashSet<>();
+
+            // this JVM's "java.home" it is executing with
+            locateJavaHomeFromThisJvm(maybeJavaHomes);
+
+            // the JAVA_HOME environment variable
+            locateJavaHomeFromJavaHomeEnvVar(maybeJavaHomes);
+
+            // the PATH environment variable will contain "bin" directories of the java home, or symlinked javas
+            locateJavaHomesFromPathEnvVar(maybeJavaHomes, nativeTarget);
+
+            switch (nativeTarget.getOperatingSystem()) {
+                case LINUX:
+                    // Ubuntu 22.04 (e.g. /usr/lib/jvm/zulu21.28.85-ca-jdk21.0.0-linux_x64)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/usr/lib/jvm"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/usr/java"), ".*");
+                    break;
+                case MACOS:
+                    final Path contentsHomeDir = Paths.get("Contents/Home");
+                    // e.g. /Library/Java/JavaVirtualMachines/zulu-11.jdk/Contents/Home
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/Library/Java/JavaVirtualMachines"), ".*", contentsHomeDir);
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/System/Library/Java/JavaVirtualMachines"), ".*", contentsHomeDir);
+                    // e.g. /Library/Internet Plug-Ins/Java*/Contents/Home
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("/Library/Internet Plug-Ins"), "Java.*", contentsHomeDir);
+                    break;
+                case WINDOWS:
+                    // Azul Zulu (e.g. C:\Program Files\Zulu\zulu-17)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Zulu"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Zulu"), ".*");
+                    // Eclipse Adoptium/Temerin (e.g. C:\Program Files (x86)\Eclipse Adoptium\jdk-8.0.392.8-hotspot)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Eclipse Adoptium"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Eclipse Adoptium"), ".*");
+                    // BellSoft/Liberica (e.g. C:\Program Files\BellSoft\LibericaJDK-11)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\BellSoft"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\BellSoft"), ".*");
+                    // Amazon Corretto (e.g. C:\Program Files (x86)\Amazon Corretto\jdk1.8.0_392 OR C:\Program Files (x86)\Amazon Corretto\jre8)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Amazon Corretto"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Amazon Corretto"), ".*");
+                    // Microsoft (e.g. C:\Program Files\Microsoft\jdk-21.0.1.12-hotspot)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Microsoft"), "jdk.*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Microsoft"), "jdk.*");
+                    // SAP Machine (e.g. C:\Program Files\SapMachine\JDK\17)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\SapMachine\\JDK"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\SapMachine\\JDK"), ".*");
+                    // IBM Semeru (e.g. C:\Program Files\Semeru\jdk-18.0.2.9-openj9)
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files\\Semeru"), ".*");
+                    locateJavaHomesFromDir(maybeJavaHomes, Paths.get("C:\\Program Files (x86)\\Semeru"), ".*");
+                    break;
+                case FREEBSD:
+                case OPENBSD:
+                case DRAGONFLYBSD:
+                    Path usrLocalPath = Paths.get("/usr/local");
+                    // FreeBSD (e.g. /usr/local/openjdk11)
+                    locateJavaHomesFromDir(maybeJavaHomes, usrLocalPath, "openjdk.*");
+                    // OpenBSD (e.g. /usr/local/jdk-17)
+                    locateJavaHomesFromDir(maybeJavaHomes, usrLocalPath, "jdk.*");
+                    break;
+                case NETBSD:
+                    Path usrPkgJavaPath = Paths.get("/usr/pkg/java");
+                    // /usr/pkg/java/openjdk21
+                    locateJavaHomesFromDir(maybeJavaHomes, usrPkgJavaPath, "openjdk.*");
+                    break;
+                case SOLARIS:
+                    Path usrJdkInstancesPath = Paths.get("/usr/jdk/instances");
+                    // /usr/jdk/instances/openjdk25
+                    locateJavaHomesFromDir(maybeJavaHomes, usrJdkInstancesPath, "openjdk.*");
+                    break;
+                case HAIKU:
+                    Path bootSystemLibPath = Paths.get("/boot/system/lib");
+                    // /boot/system/lib/openjdk21
+                    locateJavaHomesFromDir(maybeJavaHomes, bootSystemLibPath, "openjdk.*");
+                    break;
+            }
+
+            detectJavaHomes(maybeJavaHomes, EXECUTE_JAVA_VERSION_RELEASE_PROPERTIES_PROVIDER, javaHomes);
+        } finally {
+            // even if locating failed part way (with what was found so far)
+            javaHomesDetected(javaHomes, startTime, event);
         }
 
+        return javaHomesNotified(javaHomes, startTime);
+    }
+
+    /**
+     * Detects the java homes in only the given search dirs (e.g. the toolchain dir of a build agent), the same way
+     * detect() searches the dirs of this system (e.g. /usr/lib/jvm), but without this JVM, JAVA_HOME, or the PATH.
+     *
+     * @param searchDirs the dirs whose child dirs may be java homes
+     * @param releasePropertiesFallbackProvider the provider of release properties for java homes without a release file
+     * @return the java homes detected
+     * @throws Exception if a search dir could not be listed
+     */
+    static public List<JavaHome> detect(List<Path> searchDirs, ReleasePropertiesProvider releasePropertiesFallbackProvider) throws Exception {
+        final long startTime = System.currentTimeMillis();
+        final Object event = JneEvents.beginJavaHomesDetect();
+
         final List<JavaHome> javaHomes = new ArrayList<>();
+        try {
+            final Set<Path> maybeJavaHomes = new LinkedHashSet<>();
+
+            for (Path searchDir : searchDirs) {
+                locateJavaHomesFromDir(maybeJavaHomes, searchDir, ".*");
+            }
 
+            detectJavaHomes(maybeJavaHomes, releasePropertiesFallbackProvider, javaHomes);
+        } finally {
+            javaHomesDetected(javaHomes, startTime, event);
+        }
+
+        return javaHomesNotified(javaHomes, startTime);
+    }
+
+    static private void detectJavaHomes(Set<Path> maybeJavaHomes, ReleasePropertiesProvider releasePropertiesFallbackProvider,
+                                        List<JavaHome> javaHomes) {
         // detect if the possible java home IS a java home
         for (final Path maybeJavaHome : maybeJavaHomes) {
             log.trace("detectJavaHome: {}", maybeJavaHome);
             JavaHome javaHome = null;
             try {
-                javaHome = JavaHomes.detect(maybeJavaHome);
+                javaHome = JavaHomes.detect(maybeJavaHome, false, releasePropertiesFallbackProvider);
                 javaHomes.add(javaHome);
             } catch (Exception e) {
                 // not a jvm
                 log.trace("  was NOT a java home: {}", e.getMessage());
             }
         }
+    }
+
+    static private void javaHomesDetected(List<JavaHome> javaHomes, long startTime, Object event) {
+        JneEvents.endJavaHomesDetect(event, javaHomes.size());
+        JneStats.getInstance().javaHomesDetected(System.currentTimeMillis() - startTime);
+    }
 
+    static private List<JavaHome> javaHomesNotified(List<JavaHome> javaHomes, long startTime) {
+        final JneListener listener = JneListeners.resolve(null);
+        if (listener != null) {
+            listener.onJavaHomesDetected(javaHomes, System.currentTimeMillis() - startTime);
+        }
         return javaHomes;
     }
 
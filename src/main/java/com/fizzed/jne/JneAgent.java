@@ -0,0 +1,326 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A java agent that extracts (and optionally loads) natives in parallel at JVM start, while the application's own
+ * class loading continues, so the app's first JNE.loadLibrary or findExecutable finds everything ready.
+ *
+ * -javaagent:jne.jar=library:helloj,executable:jcat,file:resource.txt,load=true,threads=4
+ *
+ * Entries are "library:[name]", "executable:[name]", or "file:[name]", just like you'd pass to JNE. Instead of (or
+ * in addition to) entries in the args, "list=[resource]" reads them one per line from every classpath resource of
+ * that name. If no entries are given at all, the resource META-INF/jne/preload.list is used. "load=true" also loads
+ * the libraries once extracted, and "threads=[n]" limits the parallelism (defaults to the number of processors).
+ */
+public class JneAgent {
+    // resolved lazily on the agent's thread (never in premain), so e.g. a missing slf4j can't abort the jvm's startup
+    static private volatile Logger log;
+
+    static public final String DEFAULT_LIST_RESOURCE = "META-INF/jne/preload.list";
+
+    static private final CountDownLatch PREPARED = new CountDownLatch(1);
+
+    public enum Type {
+        LIBRARY,
+        EXECUTABLE,
+        FILE
+    }
+
+    static public void premain(String args) {
+        start(args);
+    }
+
+    static public void agentmain(String args) {
+        start(args);
+    }
+
+    static private Logger log() {
+        if (log == null) {
+            log = LoggerFactory.getLogger(JneAgent.class);
+        }
+        return log;
+    }
+
+    /**
+     * Waits for the agent to finish preparing all of its entries.
+     *
+     * @param timeout the max time to wait
+     * @param unit the unit of the timeout
+     * @return true if prepared, false if the agent isn't running or the timeout elapsed
+     */
+    static public boolean awaitPrepared(long timeout, TimeUnit unit) throws InterruptedException {
+        return PREPARED.await(timeout, unit);
+    }
+
+    static private void start(String args) {
+        // an agent must never break the app, so any failure (even to start) is only a warning
+        try {
+            // premain must return quickly, so the app can start while we prepare in the background
+            final Thread thread = new Thread(() -> {
+                try {
+                    prepare(Config.parse(args));
+                } catch (Throwable t) {
+                    warn(t);
+                } finally {
+                    PREPARED.countDown();
+                }
+            }, "jne-agent");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (Throwable t) {
+            PREPARED.countDown();
+            warn(t);
+        }
+    }
+
+    static private void warn(Throwable t) {
+        try {
+            log().warn("Unable to prepare natives: {}", t.getMessage(), t);
+        } catch (Throwable e) {
+            // e.g. slf4j isn't on the classpath
+            System.err.println("WARNING: jne agent unable to prepare natives: " + t);
+        }
+    }
+
+    /**
+     * Extracts every entry in parallel, and then loads the libraries (if requested).
+     *
+     * @return the number of entries that were prepared
+     */
+    static int prepare(Config config) throws IOException, InterruptedException {
+        final List<Entry> entries = new ArrayList<>(config.getEntries());
+        for (String listResource : config.getListResources()) {
+            entries.addAll(readListResources(listResource));
+        }
+
+        if (entries.isEmpty()) {
+            log().debug("No natives to prepare");
+            return 0;
+        }
+
+        final long start = System.currentTimeMillis();
+        final int threads = Math.max(1, Math.min(entries.size(), config.getThreads()));
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+        final AtomicInteger prepared = new AtomicInteger();
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (Entry entry : entries) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (extract(entry)) {
+                            prepared.incrementAndGet();
+                        } else {
+                            log().warn("Unable to find {} {}", entry.getType().name().toLowerCase(), entry.getName());
+                        }
+                    } catch (Exception e) {
+                        log().warn("Unable to extract {} {}: {}", entry.getType().name().toLowerCase(), entry.getName(), e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // already logged
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // the jvm serializes loading libraries anyway, so they're loaded in order once they're all extracted
+        if (config.isLoad()) {
+            for (Entry entry : entries) {
+                if (entry.getType() == Type.LIBRARY) {
+                    try {
+                        JNE.loadLibrary(entry.getName());
+                    } catch (UnsatisfiedLinkError e) {
+                        log().warn("Unable to load library {}: {}", entry.getName(), e.getMessage());
+                    }
+                }
+            }
+        }
+
+        log().debug("Prepared {} of {} natives in {} ms (threads={}, load={})",
+            prepared.get(), entries.size(), System.currentTimeMillis() - start, threads, config.isLoad());
+
+        return prepared.get();
+    }
+
+    static private boolean extract(Entry entry) throws IOException {
+        switch (entry.getType()) {
+            case LIBRARY:
+                return JNE.findLibrary(entry.getName()) != null;
+            case EXECUTABLE:
+                return JNE.findExecutable(entry.getName()) != null;
+            case FILE:
+                return JNE.findFile(entry.getName()) != null;
+            default:
+                throw new IllegalArgumentException("Unsupported type " + entry.getType());
+        }
+    }
+
+    static List<Entry> readListResources(String listResource) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        final Enumeration<URL> urls = JneAgent.class.getClassLoader().getResources(listResource);
+        while (urls.hasMoreElements()) {
+            final URL url = urls.nextElement();
+            try (InputStream in = url.openStream()) {
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        entries.add(Entry.parse(line));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    static public class Entry {
+
+        private final Type type;
+        private final String name;
+
+        public Entry(Type type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        static public Entry parse(String value) {
+            final int pos = value.indexOf(':');
+            if (pos <= 0 || pos == value.length() - 1) {
+                throw new IllegalArgumentException("Invalid entry '" + value + "' (expected e.g. library:name)");
+            }
+            final String type = value.substring(0, pos).trim();
+            final String name = value.substring(pos + 1).trim();
+            try {
+                return new Entry(Type.valueOf(type.toUpperCase()), name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid entry type '" + type + "' (expected library, executable, or file)");
+            }
+        }
+
+    }
+
+    static public class Config {
+
+        private final List<Entry> entries;
+        private final List<String> listResources;
+        private boolean load;
+        private int threads;
+
+        public Config() {
+            this.entries = new ArrayList<>();
+            this.listResources = new ArrayList<>();
+            this.load = false;
+            this.threads = Runtime.getRuntime().availableProcessors();
+        }
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        public List<String> getListResources() {
+            return listResources;
+        }
+
+        public boolean isLoad() {
+            return load;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        static public Config parse(String args) {
+            final Config config = new Config();
+            if (args != null) {
+                for (String arg : args.split(",")) {
+                    arg = arg.trim();
+                    if (arg.isEmpty()) {
+                        continue;
+                    }
+                    if (arg.startsWith("load=")) {
+                        config.load = Boolean.parseBoolean(arg.substring(5));
+                    } else if (arg.equals("load")) {
+                        config.load = true;
+                    } else if (arg.startsWith("threads=")) {
+                        config.threads = Integer.parseInt(arg.substring(8));
+                    } else if (arg.startsWith("list=")) {
+                        config.listResources.add(arg.substring(5));
+                    } else {
+                        config.entries.add(Entry.parse(arg));
+                    }
+                }
+            }
+            if (config.entries.isEmpty() && config.listResources.isEmpty()) {
+                config.listResources.add(DEFAULT_LIST_RESOURCE);
+            }
+            return config;
+        }
+
+    }
+
+    static private class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r, "jne-agent-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Receives typed callbacks as JNE finds, extracts and loads natives, and detects the platform, e.g. to bridge them to
+ * metrics or tracing. Registered globally via JNE.addListener or for a single lookup via Options.setListener. When
+ * none are registered, JNE skips the callbacks entirely.
+ *
+ * Callbacks are made on the thread doing the work, so they should be quick. Any exception thrown is logged and
+ * otherwise ignored. Every method has an empty default, so implement only what you need.
+ */
+public interface JneListener {
+
+    /**
+     * @param type "library", "executable", or "file"
+     * @param name the name as passed to JNE
+     */
+    default void onLookupStart(String type, String name) {
+    }
+
+    /**
+     * Always called after onLookupStart, even if the lookup failed (after onLookupFailure, with a null file).
+     *
+     * @param file the file found (or extracted) or null if not found
+     */
+    default void onLookupEnd(String type, String name, File file, long nanos) {
+    }
+
+    /**
+     * @param error why the lookup failed (e.g. the resource could not be extracted)
+     */
+    default void onLookupFailure(String type, String name, Throwable error) {
+    }
+
+    /**
+     * Whether a previously extracted file was reused (HASH_HIT or CONTENT_MATCH) or will be extracted (MISS or STALE).
+     */
+    default void onCacheValidated(File file, LookupReport.CacheDecision cacheDecision) {
+    }
+
+    default void onExtractStart(URL url, File file) {
+    }
+
+    default void onExtractEnd(URL url, File file, long bytes, long nanos) {
+    }
+
+    /**
+     * @param path the path loaded from (a memfd path if loaded from memory, or the mapped name if loaded via
+     *             System.loadLibrary)
+     */
+    default void onLoad(String name, String path, long nanos) {
+    }
+
+    default void onLoadFailure(String name, String path, Throwable error) {
+    }
+
+    default void onPlatformDetected(PlatformInfo platformInfo, long millis) {
+    }
+
+    default void onJavaHomesDetected(List<JavaHome> javaHomes, long millis) {
+    }
+
+}
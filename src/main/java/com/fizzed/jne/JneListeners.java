@@ -0,0 +1,189 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The global listeners and the dispatch to them. Call sites resolve the listener once per operation, which is null
+ * unless at least one is registered, so they cost a volatile read and a null check otherwise.
+ */
+class JneListeners implements JneListener {
+    static private final Logger log = LoggerFactory.getLogger(JneListeners.class);
+
+    static private final JneListener[] EMPTY = new JneListener[0];
+    static private volatile JneListener[] GLOBAL = EMPTY;
+
+    private final JneListener[] listeners;
+
+    private JneListeners(JneListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    synchronized static void add(JneListener listener) {
+        final List<JneListener> listeners = new ArrayList<>(Arrays.asList(GLOBAL));
+        listeners.add(listener);
+        GLOBAL = listeners.toArray(EMPTY);
+    }
+
+    synchronized static void remove(JneListener listener) {
+        final List<JneListener> listeners = new ArrayList<>(Arrays.asList(GLOBAL));
+        listeners.remove(listener);
+        GLOBAL = listeners.toArray(EMPTY);
+    }
+
+    /**
+     * @param options the options (or null if only the global listeners apply)
+     * @return the listener to notify or null if there are none
+     */
+    static JneListener resolve(Options options) {
+        final JneListener[] global = GLOBAL;
+        final JneListener listener = options != null ? options.getListener() : null;
+        if (listener == null) {
+            return global.length == 0 ? null : new JneListeners(global);
+        }
+        final JneListener[] listeners = Arrays.copyOf(global, global.length + 1);
+        listeners[global.length] = listener;
+        return new JneListeners(listeners);
+    }
+
+    static private void failed(JneListener listener, RuntimeException e) {
+        log.warn("Listener {} failed: {}", listener, e.getMessage(), e);
+    }
+
+    @Override
+    public void onLookupStart(String type, String name) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onLookupStart(type, name);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onLookupEnd(String type, String name, File file, long nanos) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onLookupEnd(type, name, file, nanos);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onLookupFailure(String type, String name, Throwable error) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onLookupFailure(type, name, error);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onCacheValidated(File file, LookupReport.CacheDecision cacheDecision) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onCacheValidated(file, cacheDecision);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onExtractStart(URL url, File file) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onExtractStart(url, file);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onExtractEnd(URL url, File file, long bytes, long nanos) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onExtractEnd(url, file, bytes, nanos);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onLoad(String name, String path, long nanos) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onLoad(name, path, nanos);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onLoadFailure(String name, String path, Throwable error) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onLoadFailure(name, path, error);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onPlatformDetected(PlatformInfo platformInfo, long millis) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onPlatformDetected(platformInfo, millis);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void onJavaHomesDetected(List<JavaHome> javaHomes, long millis) {
+        for (JneListener listener : this.listeners) {
+            try {
+                listener.onJavaHomesDetected(javaHomes, millis);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+}
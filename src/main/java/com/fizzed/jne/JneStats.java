@@ -0,0 +1,333 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime statistics of how JNE found, extracted and loaded natives (and detected the platform), which are always
+ * counted (it's just a few adders), and optionally exposed over JMX for ops dashboards via JneStats.register() or
+ * -Djne.jmx=true. Every copy of JNE (e.g. one per webapp) registers under its own name, and since the registered
+ * mbean keeps its classloader alive, an app that is undeployed should call JneStats.unregister().
+ */
+public class JneStats implements JneStatsMXBean {
+    static private final Logger log = LoggerFactory.getLogger(JneStats.class);
+
+    static public final String SYSPROP_JMX = "jne.jmx";
+    static public final String OBJECT_NAME_PREFIX = "com.fizzed.jne:type=Stats";
+
+    static private final long[] EXTRACTION_MILLIS_BUCKETS = { 1L, 10L, 100L, 1000L };
+    static private final long EXTRACT_DIR_BYTES_TTL_MILLIS = 10000L;
+    static private final JneStats INSTANCE = new JneStats();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupsNotFound = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheStale = new LongAdder();
+    private final LongAdder extractions = new LongAdder();
+    private final LongAdder bytesExtracted = new LongAdder();
+    private final LongAdder[] extractionMillis = newAdders(EXTRACTION_MILLIS_BUCKETS.length + 1);
+    private final ConcurrentHashMap<String, String> loadedLibraries = new ConcurrentHashMap<>();
+    private volatile File extractDir;
+    private volatile long extractDirBytes;
+    private volatile long extractDirBytesAt;
+    private final LongAdder platformDetects = new LongAdder();
+    private final AtomicLong platformDetectLastMillis = new AtomicLong();
+    private final LongAdder javaHomesDetects = new LongAdder();
+    private final AtomicLong javaHomesDetectLastMillis = new AtomicLong();
+
+    JneStats() {
+        // use getInstance()
+    }
+
+    static public JneStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The name this copy of JNE registers its stats under (e.g. "com.fizzed.jne:type=Stats,loader=1b6d3586"), where
+     * the loader is unique to the classloader of this copy, so each app in a container has its own.
+     */
+    static public ObjectName getObjectName() throws MalformedObjectNameException {
+        return new ObjectName(OBJECT_NAME_PREFIX + ",loader=" + Integer.toHexString(System.identityHashCode(JneStats.class)));
+    }
+
+    /**
+     * Registers the stats with the platform MBean server (if not already registered).
+     *
+     * @return true if registered (now or previously), false if unable to register
+     */
+    static public boolean register() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = getObjectName();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(INSTANCE, objectName);
+                log.debug("Registered mbean {}", objectName);
+            }
+            return true;
+        } catch (InstanceAlreadyExistsException e) {
+            // registered concurrently
+            return true;
+        } catch (Exception | LinkageError e) {
+            log.warn("Unable to register mbean {}: {}", OBJECT_NAME_PREFIX, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Unregisters the stats from the platform MBean server (if registered), which releases the classloader of this
+     * copy of JNE (e.g. when its app is undeployed).
+     *
+     * @return true if unregistered (now or previously), false if unable to unregister
+     */
+    static public boolean unregister() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = getObjectName();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+                log.debug("Unregistered mbean {}", objectName);
+            }
+            return true;
+        } catch (InstanceNotFoundException e) {
+            // unregistered concurrently
+            return true;
+        } catch (Exception | LinkageError e) {
+            log.warn("Unable to unregister mbean {}: {}", OBJECT_NAME_PREFIX, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public long getLookups() {
+        return this.lookups.sum();
+    }
+
+    @Override
+    public long getLookupsNotFound() {
+        return this.lookupsNotFound.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return this.cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return this.cacheMisses.sum();
+    }
+
+    @Override
+    public long getCacheStale() {
+        return this.cacheStale.sum();
+    }
+
+    @Override
+    public long getExtractions() {
+        return this.extractions.sum();
+    }
+
+    @Override
+    public long getBytesExtracted() {
+        return this.bytesExtracted.sum();
+    }
+
+    @Override
+    public Map<String, Long> getExtractionMillisHistogram() {
+        final Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < EXTRACTION_MILLIS_BUCKETS.length; i++) {
+            histogram.put("<=" + EXTRACTION_MILLIS_BUCKETS[i] + "ms", this.extractionMillis[i].sum());
+        }
+        histogram.put(">" + EXTRACTION_MILLIS_BUCKETS[EXTRACTION_MILLIS_BUCKETS.length - 1] + "ms",
+            this.extractionMillis[EXTRACTION_MILLIS_BUCKETS.length].sum());
+        return histogram;
+    }
+
+    @Override
+    public Map<String, String> getLoadedLibraries() {
+        return new TreeMap<>(this.loadedLibraries);
+    }
+
+    @Override
+    public String getExtractDir() {
+        final File dir = this.extractDir;
+        return dir != null ? dir.getAbsolutePath() : null;
+    }
+
+    @Override
+    public long getExtractDirBytes() {
+        final File dir = this.extractDir;
+        if (dir == null) {
+            return 0L;
+        }
+        final long now = System.currentTimeMillis();
+        if (now - this.extractDirBytesAt < EXTRACT_DIR_BYTES_TTL_MILLIS) {
+            return this.extractDirBytes;
+        }
+        final long[] bytes = { 0L };
+        try {
+            Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    bytes[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Unable to compute size of extract dir [{}]: {}", dir, e.getMessage());
+        }
+        this.extractDirBytes = bytes[0];
+        this.extractDirBytesAt = now;
+        return bytes[0];
+    }
+
+    @Override
+    public long getPlatformDetects() {
+        return this.platformDetects.sum();
+    }
+
+    @Override
+    public long getPlatformDetectLastMillis() {
+        return this.platformDetectLastMillis.get();
+    }
+
+    @Override
+    public long getJavaHomesDetects() {
+        return this.javaHomesDetects.sum();
+    }
+
+    @Override
+    public long getJavaHomesDetectLastMillis() {
+        return this.javaHomesDetectLastMillis.get();
+    }
+
+    @Override
+    public void reset() {
+        this.lookups.reset();
+        this.lookupsNotFound.reset();
+        this.cacheHits.reset();
+        this.cacheMisses.reset();
+        this.cacheStale.reset();
+        this.extractions.reset();
+        this.bytesExtracted.reset();
+        for (LongAdder adder : this.extractionMillis) {
+            adder.reset();
+        }
+        this.platformDetects.reset();
+        this.platformDetectLastMillis.set(0L);
+        this.javaHomesDetects.reset();
+        this.javaHomesDetectLastMillis.set(0L);
+        // loaded libraries and the extract dir are state, not counters
+    }
+
+    //
+    // recording
+    //
+
+    void lookup(File file) {
+        this.lookups.increment();
+        if (file == null) {
+            this.lookupsNotFound.increment();
+        }
+    }
+
+    void cacheHit() {
+        this.cacheHits.increment();
+    }
+
+    void cacheMiss() {
+        this.cacheMisses.increment();
+    }
+
+    void cacheStale() {
+        this.cacheStale.increment();
+    }
+
+    void extractDir(File dir) {
+        if (!dir.equals(this.extractDir)) {
+            this.extractDir = dir;
+            this.extractDirBytesAt = 0L;
+        }
+    }
+
+    void extracted(long bytes, long nanos) {
+        this.extractions.increment();
+        this.bytesExtracted.add(bytes);
+        final long millis = nanos / 1000000L;
+        int bucket = 0;
+        while (bucket < EXTRACTION_MILLIS_BUCKETS.length && millis > EXTRACTION_MILLIS_BUCKETS[bucket]) {
+            bucket++;
+        }
+        this.extractionMillis[bucket].increment();
+    }
+
+    void loaded(String name, String path) {
+        this.loadedLibraries.put(name, path);
+    }
+
+    void platformDetected(long millis) {
+        this.platformDetects.increment();
+        this.platformDetectLastMillis.set(millis);
+    }
+
+    void javaHomesDetected(long millis) {
+        this.javaHomesDetects.increment();
+        this.javaHomesDetectLastMillis.set(millis);
+    }
+
+    static private LongAdder[] newAdders(int size) {
+        final LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * The JMX view of JneStats, registered as "com.fizzed.jne:type=Stats,loader=[id]" (one per copy of JNE).
+ */
+public interface JneStatsMXBean {
+
+    /**
+     * @return the number of libraries, executables and files looked up
+     */
+    long getLookups();
+
+    long getLookupsNotFound();
+
+    /**
+     * @return the number of previously extracted files that were reused (their version hash or content matched)
+     */
+    long getCacheHits();
+
+    /**
+     * @return the number of files that had never been extracted
+     */
+    long getCacheMisses();
+
+    /**
+     * @return the number of previously extracted files that were out of date and extracted again
+     */
+    long getCacheStale();
+
+    long getExtractions();
+
+    long getBytesExtracted();
+
+    /**
+     * @return the number of extractions by how long they took (e.g. "<=10ms")
+     */
+    Map<String, Long> getExtractionMillisHistogram();
+
+    /**
+     * @return the name of each library loaded and the path it was loaded from
+     */
+    Map<String, String> getLoadedLibraries();
+
+    /**
+     * @return the dir natives were most recently extracted to (or null if none were)
+     */
+    String getExtractDir();
+
+    /**
+     * @return the total size of the files in the extract dir (walked at most every 10 secs, not on every read)
+     */
+    long getExtractDirBytes();
+
+    long getPlatformDetects();
+
+    long getPlatformDetectLastMillis();
+
+    long getJavaHomesDetects();
+
+    long getJavaHomesDetectLastMillis();
+
+    void reset();
+
+}
@@ -0,0 +1,248 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explains how a native was found (or not): every resource path tried, which one matched, whether a previously
+ * extracted file was reused, how many bytes were copied and how long each phase took. Created by the JNE.explain*
+ * variants, for pinpointing where the time goes when startup is slow.
+ *
+ * LookupReport report = JNE.explainLoadLibrary("helloj", null);
+ * log.info("{}", report);
+ */
+public class LookupReport {
+
+    static private final ThreadLocal<LookupReport> CURRENT = new ThreadLocal<>();
+
+    public enum Phase {
+        /** looking up the native in the prepared dir's manifest */
+        PREPARED,
+        /** probing the classloader for each candidate resource path */
+        RESOLVE,
+        /** reading the manifest of the jar for its version hash */
+        HASH,
+        /** choosing (and creating if needed) the dir to extract to */
+        DIR,
+        /** verifying a previously extracted file is still current */
+        VERIFY,
+        /** extracting (or materializing) the file */
+        EXTRACT,
+        /** System.load (or loading from memory) */
+        LOAD
+    }
+
+    public enum CacheDecision {
+        /** not found at all */
+        NONE,
+        /** found in the prepared dir */
+        PREPARED,
+        /** the resource is already a plain file, which is used in place */
+        IN_PLACE,
+        /** a previously extracted file with a matching version hash was reused */
+        HASH_HIT,
+        /** a previously extracted file with a different version hash, but the same size & crc32, was reused */
+        CONTENT_MATCH,
+        /** nothing previously extracted, so it was extracted */
+        MISS,
+        /** a previously extracted file was out of date, so it was extracted again */
+        STALE,
+        /** the library was loaded from memory, without being extracted */
+        MEMORY
+    }
+
+    private final String type;
+    private final String name;
+    private final List<String> resourcePathsTried;
+    private final Map<Phase, Long> phaseNanos;
+    private String matchedResourcePath;
+    private URL matchedUrl;
+    private File file;
+    private CacheDecision cacheDecision;
+    private String extractMethod;
+    private long bytesCopied;
+    private long totalNanos;
+
+    LookupReport(String type, String name) {
+        this.type = type;
+        this.name = name;
+        this.resourcePathsTried = new ArrayList<>();
+        this.phaseNanos = new EnumMap<>(Phase.class);
+        this.cacheDecision = CacheDecision.NONE;
+    }
+
+    /**
+     * @return e.g. "library", "executable", or "file"
+     */
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Every resource path probed on the classloader, in the order they were tried.
+     */
+    public List<String> getResourcePathsTried() {
+        return resourcePathsTried;
+    }
+
+    /**
+     * @return the resource path that matched or null if none did
+     */
+    public String getMatchedResourcePath() {
+        return matchedResourcePath;
+    }
+
+    public URL getMatchedUrl() {
+        return matchedUrl;
+    }
+
+    /**
+     * @return the file found (or extracted) or null if none was found
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public CacheDecision getCacheDecision() {
+        return cacheDecision;
+    }
+
+    /**
+     * @return how the file was extracted (e.g. "TRANSFER" or "HARDLINK") or null if it wasn't
+     */
+    public String getExtractMethod() {
+        return extractMethod;
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    /**
+     * @return the nanos spent in each phase (phases that never ran are missing)
+     */
+    public Map<Phase, Long> getPhaseNanos() {
+        return phaseNanos;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        final Long nanos = this.phaseNanos.get(phase);
+        return nanos != null ? nanos : 0L;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Lookup of ").append(this.type).append(" [").append(this.name).append("] in ")
+            .append(formatMillis(this.totalNanos)).append(" ms");
+        sb.append("\n  tried: ").append(this.resourcePathsTried);
+        sb.append("\n  matched: ").append(this.matchedUrl != null ? this.matchedUrl : "<none>");
+        sb.append("\n  file: ").append(this.file != null ? this.file : "<none>");
+        sb.append("\n  cache: ").append(this.cacheDecision);
+        if (this.extractMethod != null) {
+            sb.append(" (").append(this.bytesCopied).append(" bytes via ").append(this.extractMethod).append(")");
+        }
+        for (Map.Entry<Phase, Long> entry : this.phaseNanos.entrySet()) {
+            sb.append("\n  ").append(entry.getKey().name().toLowerCase()).append(": ")
+                .append(formatMillis(entry.getValue())).append(" ms");
+        }
+        return sb.toString();
+    }
+
+    static private String formatMillis(long nanos) {
+        return String.format("%.3f", nanos / 1000000.0d);
+    }
+
+    //
+    // recording (only while a report is active on the current thread, otherwise these are no-ops)
+    //
+
+    static LookupReport begin(String type, String name) {
+        final LookupReport report = new LookupReport(type, name);
+        report.totalNanos = System.nanoTime();
+        CURRENT.set(report);
+        return report;
+    }
+
+    static void end(LookupReport report) {
+        CURRENT.remove();
+        report.totalNanos = System.nanoTime() - report.totalNanos;
+    }
+
+    static void phase(Phase phase, long startNanos) {
+        final LookupReport report = CURRENT.get();
+        if (report != null) {
+            report.phaseNanos.merge(phase, System.nanoTime() - startNanos, Long::sum);
+        }
+    }
+
+    static void tried(String resourcePath, URL url) {
+        final LookupReport report = CURRENT.get();
+        if (report != null) {
+            report.resourcePathsTried.add(resourcePath);
+            if (url != null) {
+                report.matchedResourcePath = resourcePath;
+                report.matchedUrl = url;
+            }
+        }
+    }
+
+    static void cacheDecision(CacheDecision cacheDecision) {
+        final LookupReport report = CURRENT.get();
+        if (report != null) {
+            report.cacheDecision = cacheDecision;
+        }
+    }
+
+    static void copied(String extractMethod, long bytes) {
+        final LookupReport report = CURRENT.get();
+        if (report != null) {
+            report.extractMethod = extractMethod;
+            report.bytesCopied += bytes;
+        }
+    }
+
+    static void file(File file) {
+        final LookupReport report = CURRENT.get();
+        if (report != null) {
+            report.file = file;
+        }
+    }
+
+    void setFile(File file) {
+        this.file = file;
+    }
+
+}
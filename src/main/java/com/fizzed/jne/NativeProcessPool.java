@@ -0,0 +1,567 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of long-lived instances of an executable (e.g. one found via JNE.findExecutable) that speak a line or
+ * length-prefixed frame protocol on their stdin/stdout, so callers that would otherwise spawn a process per request
+ * can borrow a warm one instead. Processes are health checked when borrowed, evicted once idle for too long (down to
+ * the min idle), and replaced when they die. A request that isn't answered within the read timeout kills the process,
+ * so a hung instance is replaced rather than blocking its caller forever.
+ *
+ * try (NativeProcessPool pool = NativeProcessPool.of("jfilter", null).setMaxSize(8)) {
+ *     String result = pool.request("some input");
+ * }
+ */
+public class NativeProcessPool implements Closeable {
+    static private final Logger log = LoggerFactory.getLogger(NativeProcessPool.class);
+
+    public interface HealthCheck {
+        boolean check(NativeProcess process) throws IOException;
+    }
+
+    private final List<String> command;
+    private final LinkedBlockingDeque<NativeProcess> idle;
+    private final AtomicInteger total;
+    private int maxSize;
+    private int minIdle;
+    private long idleTimeoutMillis;
+    private long borrowTimeoutMillis;
+    private long readTimeoutMillis;
+    private int maxFrameSize;
+    private HealthCheck healthCheck;
+    private volatile ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public NativeProcessPool(File executable, String... args) {
+        this.command = new ArrayList<>();
+        this.command.add(executable.getAbsolutePath());
+        this.command.addAll(Arrays.asList(args));
+        this.idle = new LinkedBlockingDeque<>();
+        this.total = new AtomicInteger();
+        this.maxSize = Runtime.getRuntime().availableProcessors();
+        this.minIdle = 0;
+        this.idleTimeoutMillis = 60000L;
+        this.borrowTimeoutMillis = 30000L;
+        this.readTimeoutMillis = 30000L;
+        this.maxFrameSize = 16 * 1024 * 1024;
+    }
+
+    /**
+     * Creates a pool of the named executable, found (and extracted if necessary) by JNE.
+     */
+    static public NativeProcessPool of(String executableName, Options options, String... args) throws IOException {
+        return new NativeProcessPool(JNE.requireExecutable(executableName, options), args);
+    }
+
+    public List<String> getCommand() {
+        return command;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the max number of processes (idle and borrowed) in the pool. Defaults to the number of processors.
+     */
+    public NativeProcessPool setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * Sets the number of processes kept warm, even when they've been idle longer than the idle timeout. Processes
+     * are started (and restarted if they die) in the background to maintain it. Defaults to 0.
+     */
+    public NativeProcessPool setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+        return this;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Sets how long a process may be idle before it's evicted (unless needed for the min idle). Defaults to 60 secs.
+     */
+    public NativeProcessPool setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        return this;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    /**
+     * Sets how long a request waits to borrow a process when all of them are busy (and the pool is at its max size).
+     * Defaults to 30 secs.
+     */
+    public NativeProcessPool setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        return this;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * Sets how long a request waits for the process to answer. If it doesn't, the process is killed (and replaced)
+     * and the request fails with a TimeoutException. Defaults to 30 secs.
+     */
+    public NativeProcessPool setReadTimeoutMillis(long readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * Sets the max length of a frame read from a process, so a process that is out of sync (or misbehaving) can't
+     * make us allocate an arbitrarily large buffer. Defaults to 16 MB.
+     */
+    public NativeProcessPool setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+        return this;
+    }
+
+    public HealthCheck getHealthCheck() {
+        return healthCheck;
+    }
+
+    /**
+     * Sets an optional check run on a process each time it is borrowed (in addition to verifying it's alive). If
+     * it fails, the process is destroyed and another one is borrowed instead.
+     */
+    public NativeProcessPool setHealthCheck(HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+        return this;
+    }
+
+    public int getIdleCount() {
+        return this.idle.size();
+    }
+
+    public int getTotalCount() {
+        return this.total.get();
+    }
+
+    /**
+     * Starts the min idle processes and the background eviction. Optional, since the pool is also started by the
+     * first borrow.
+     */
+    synchronized public NativeProcessPool start() {
+        if (this.closed) {
+            throw new IllegalStateException("Pool is closed");
+        }
+        if (this.evictor == null) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "jne-process-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long interval = Math.max(10L, this.idleTimeoutMillis / 2);
+            this.evictor.scheduleWithFixedDelay(this::evict, 0L, interval, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Borrows a process, starting a new one if none are idle and the pool isn't at its max size. It must be released
+     * back to the pool when done.
+     *
+     * @throws TimeoutException if no process was available within the timeout
+     */
+    public NativeProcess borrow(long timeout, TimeUnit unit) throws IOException, InterruptedException, TimeoutException {
+        if (this.evictor == null) {
+            this.start();
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            if (this.closed) {
+                throw new IllegalStateException("Pool is closed");
+            }
+
+            NativeProcess process = this.idle.pollFirst();
+            if (process == null && this.reserve()) {
+                return this.spawn().borrowed();
+            }
+
+            if (process == null) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException("No process available within " + unit.toMillis(timeout) + " ms (max size " + this.maxSize + ")");
+                }
+                // wake up periodically, since a destroyed process frees up room to start a new one
+                process = this.idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100L)), TimeUnit.NANOSECONDS);
+                if (process == null) {
+                    continue;
+                }
+            }
+
+            if (this.isHealthy(process)) {
+                return process.borrowed();
+            }
+            this.destroy(process);
+        }
+    }
+
+    /**
+     * Returns a borrowed process to the pool, or destroys it if it died or was marked broken.
+     */
+    public void release(NativeProcess process) {
+        if (this.closed || process.isBroken() || !process.isAlive()) {
+            this.destroy(process);
+            return;
+        }
+        process.lastUsedAt = System.currentTimeMillis();
+        // most recently used first, so the least recently used at the end are the first evicted
+        this.idle.offerFirst(process);
+    }
+
+    /**
+     * Writes the line to a borrowed process, reads one line back (within the read timeout), and releases the process.
+     *
+     * @throws TimeoutException if no process was available, or it didn't answer within the read timeout
+     */
+    public String request(String line) throws IOException, InterruptedException, TimeoutException {
+        return this.request(process -> {
+            process.writeLine(line);
+            return process.readLine();
+        });
+    }
+
+    /**
+     * Writes the frame to a borrowed process, reads one frame back (within the read timeout), and releases the process.
+     *
+     * @throws TimeoutException if no process was available, or it didn't answer within the read timeout
+     */
+    public byte[] requestFrame(byte[] frame) throws IOException, InterruptedException, TimeoutException {
+        return this.request(process -> {
+            process.writeFrame(frame);
+            return process.readFrame();
+        });
+    }
+
+    private interface Exchange<T> {
+        T apply(NativeProcess process) throws IOException;
+    }
+
+    private <T> T request(Exchange<T> exchange) throws IOException, InterruptedException, TimeoutException {
+        final NativeProcess process = this.borrow(this.borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        // whichever of the exchange or its deadline finishes first wins, so a process that just answered isn't killed
+        final AtomicBoolean finished = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        try {
+            // a blocking read of a pipe can't be interrupted, but killing the process ends it
+            try {
+                deadline = this.evictor.schedule(() -> {
+                    if (!finished.compareAndSet(false, true)) {
+                        return;
+                    }
+                    log.warn("Process {} did not answer within {} ms (will kill and replace it)", this.command.get(0), this.readTimeoutMillis);
+                    process.timedOut = true;
+                    process.markBroken();
+                    this.destroy(process, true);
+                    this.evict();
+                }, this.readTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // raced a close()
+                throw new IOException("Pool is closed", e);
+            }
+            final T result = exchange.apply(process);
+            finished.set(true);
+            return result;
+        } catch (IOException e) {
+            process.markBroken();
+            if (process.timedOut) {
+                throw new TimeoutException("Process did not answer within " + this.readTimeoutMillis + " ms");
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            // e.g. a frame it failed to parse, so its stream is out of sync with us
+            process.markBroken();
+            throw e;
+        } finally {
+            finished.set(true);
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            this.release(process);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            // under the same lock the evictor spawns processes with, so it can't spawn one after we're closed
+            this.closed = true;
+            if (this.evictor != null) {
+                this.evictor.shutdownNow();
+            }
+        }
+        NativeProcess process;
+        while ((process = this.idle.pollFirst()) != null) {
+            this.destroy(process);
+        }
+    }
+
+    private boolean reserve() {
+        while (true) {
+            final int current = this.total.get();
+            if (current >= this.maxSize) {
+                return false;
+            }
+            if (this.total.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private NativeProcess spawn() throws IOException {
+        try {
+            final Process process = new ProcessBuilder(this.command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+            log.debug("Started process {} (total {})", this.command.get(0), this.total.get());
+            return new NativeProcess(process, this.maxFrameSize);
+        } catch (IOException | RuntimeException e) {
+            this.total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isHealthy(NativeProcess process) {
+        if (!process.isAlive()) {
+            log.debug("Process {} died (will replace it)", this.command.get(0));
+            return false;
+        }
+        if (this.healthCheck != null) {
+            try {
+                if (!this.healthCheck.check(process)) {
+                    log.debug("Process {} failed health check (will replace it)", this.command.get(0));
+                    return false;
+                }
+            } catch (IOException e) {
+                log.debug("Process {} failed health check (will replace it): {}", this.command.get(0), e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void destroy(NativeProcess process) {
+        this.destroy(process, false);
+    }
+
+    private void destroy(NativeProcess process, boolean forcibly) {
+        if (process.destroy(forcibly)) {
+            this.total.decrementAndGet();
+        }
+    }
+
+    void evict() {
+        try {
+            final long now = System.currentTimeMillis();
+
+            // least recently used are at the end
+            final Iterator<NativeProcess> it = this.idle.descendingIterator();
+            while (it.hasNext()) {
+                final NativeProcess process = it.next();
+                final boolean dead = !process.isAlive();
+                final boolean expired = now - process.lastUsedAt > this.idleTimeoutMillis && this.idle.size() > this.minIdle;
+                if ((dead || expired) && this.idle.remove(process)) {
+                    log.debug("Evicting {} process {}", dead ? "dead" : "idle", this.command.get(0));
+                    this.destroy(process);
+                }
+            }
+
+            // keep the min idle warm (and replace any that died)
+            synchronized (this) {
+                while (!this.closed && this.idle.size() < this.minIdle && this.reserve()) {
+                    final NativeProcess process = this.spawn();
+                    process.lastUsedAt = now;
+                    this.idle.offerLast(process);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unable to cleanly evict or start processes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A process in the pool. Lines are UTF-8 and terminated by a newline. Frames are a 4-byte big-endian length
+     * followed by that many bytes (up to the max frame size of the pool).
+     */
+    static public class NativeProcess {
+
+        private final Process process;
+        private final InputStream input;
+        private final OutputStream output;
+        private final int maxFrameSize;
+        private volatile long lastUsedAt;
+        private volatile boolean broken;
+        private volatile boolean timedOut;
+        private boolean destroyed;
+
+        NativeProcess(Process process, int maxFrameSize) {
+            this.process = process;
+            this.maxFrameSize = maxFrameSize;
+            this.input = new BufferedInputStream(process.getInputStream());
+            this.output = new BufferedOutputStream(process.getOutputStream());
+            this.lastUsedAt = System.currentTimeMillis();
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        public boolean isAlive() {
+            return this.process.isAlive();
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        /**
+         * Marks the process as broken (e.g. the protocol got out of sync), so its destroyed rather than reused.
+         */
+        public void markBroken() {
+            this.broken = true;
+        }
+
+        public void writeLine(String line) throws IOException {
+            this.output.write(line.getBytes(StandardCharsets.UTF_8));
+            this.output.write('\n');
+            this.output.flush();
+        }
+
+        public String readLine() throws IOException {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            int b;
+            while ((b = this.input.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException("Process closed its output");
+                }
+                baos.write(b);
+            }
+            final String line = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+            return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        }
+
+        public void writeFrame(byte[] frame) throws IOException {
+            final int length = frame.length;
+            this.output.write(length >>> 24);
+            this.output.write(length >>> 16);
+            this.output.write(length >>> 8);
+            this.output.write(length);
+            this.output.write(frame);
+            this.output.flush();
+        }
+
+        public byte[] readFrame() throws IOException {
+            final byte[] header = this.readFully(4);
+            final int length = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+            if (length < 0 || length > this.maxFrameSize) {
+                throw new IOException("Invalid frame length " + length + " (max " + this.maxFrameSize + ")");
+            }
+            return this.readFully(length);
+        }
+
+        private byte[] readFully(int length) throws IOException {
+            final byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                final int n = this.input.read(bytes, offset, length - offset);
+                if (n < 0) {
+                    throw new EOFException("Process closed its output");
+                }
+                offset += n;
+            }
+            return bytes;
+        }
+
+        private NativeProcess borrowed() {
+            this.lastUsedAt = System.currentTimeMillis();
+            return this;
+        }
+
+        synchronized private boolean destroy(boolean forcibly) {
+            if (this.destroyed) {
+                return false;
+            }
+            this.destroyed = true;
+            if (forcibly) {
+                // e.g. hung, so it may never read its stdin (flushing it could block) or exit on its own
+                this.process.destroyForcibly();
+            }
+            try {
+                this.output.close();
+            } catch (IOException e) {
+                // ignore, we're destroying it anyway
+            }
+            if (!forcibly) {
+                this.process.destroy();
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,358 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs an executable (e.g. one found via JNE.findExecutable) with its stdin and stdout streamed, rather than buffered
+ * in memory, so gigabytes can be piped through it (e.g. media or compression tools).
+ *
+ * When the input or output is a file, the child process is handed the file directly (ProcessBuilder.Redirect), so the
+ * bytes never pass through the jvm. Otherwise stdin/stdout are pipes, which give natural backpressure (a write blocks
+ * while the process's pipe is full). run() pumps them through pooled heap buffers, straight to/from the process's
+ * streams. If only one of them is pumped, it's pumped on the caller's thread. If both are, the caller's thread reads
+ * stdout while a thread from a shared pool writes stdin, since both pipes must drain at the same time.
+ *
+ * NativeStreamRunner.of("zstd", null, "-d")
+ *     .setInput(new File("big.zst"))
+ *     .setOutput(new File("big"))
+ *     .run();
+ */
+public class NativeStreamRunner {
+    static private final Logger log = LoggerFactory.getLogger(NativeStreamRunner.class);
+
+    static private final int BUFFER_SIZE = 64 * 1024;
+    static private final ConcurrentLinkedQueue<byte[]> BUFFERS = new ConcurrentLinkedQueue<>();
+    static private final MemoizedInitializer<ExecutorService> PUMPS = new MemoizedInitializer<>();
+
+    private final List<String> command;
+    private File input;
+    private File output;
+    private File error;
+    private File workingDir;
+
+    public NativeStreamRunner(File executable, String... args) {
+        this.command = new ArrayList<>();
+        this.command.add(executable.getAbsolutePath());
+        this.command.addAll(Arrays.asList(args));
+    }
+
+    /**
+     * Creates a runner of the named executable, found (and extracted if necessary) by JNE.
+     */
+    static public NativeStreamRunner of(String executableName, Options options, String... args) throws IOException {
+        return new NativeStreamRunner(JNE.requireExecutable(executableName, options), args);
+    }
+
+    public List<String> getCommand() {
+        return command;
+    }
+
+    public File getInput() {
+        return input;
+    }
+
+    /**
+     * Sets a file the process reads as its stdin directly (the bytes never pass through the jvm). If null, stdin is a
+     * pipe.
+     */
+    public NativeStreamRunner setInput(File input) {
+        this.input = input;
+        return this;
+    }
+
+    public File getOutput() {
+        return output;
+    }
+
+    /**
+     * Sets a file the process writes its stdout to directly (the bytes never pass through the jvm). If null, stdout is
+     * a pipe.
+     */
+    public NativeStreamRunner setOutput(File output) {
+        this.output = output;
+        return this;
+    }
+
+    public File getError() {
+        return error;
+    }
+
+    /**
+     * Sets a file the process writes its stderr to. If null, stderr is inherited from this jvm.
+     */
+    public NativeStreamRunner setError(File error) {
+        this.error = error;
+        return this;
+    }
+
+    public File getWorkingDir() {
+        return workingDir;
+    }
+
+    public NativeStreamRunner setWorkingDir(File workingDir) {
+        this.workingDir = workingDir;
+        return this;
+    }
+
+    /**
+     * Starts the process. Its stdin/stdout channels are available unless they were redirected to files.
+     */
+    public Execution start() throws IOException {
+        final ProcessBuilder pb = new ProcessBuilder(this.command);
+        if (this.workingDir != null) {
+            pb.directory(this.workingDir);
+        }
+        pb.redirectInput(this.input != null ? ProcessBuilder.Redirect.from(this.input) : ProcessBuilder.Redirect.PIPE);
+        pb.redirectOutput(this.output != null ? ProcessBuilder.Redirect.to(this.output) : ProcessBuilder.Redirect.PIPE);
+        pb.redirectError(this.error != null ? ProcessBuilder.Redirect.to(this.error) : ProcessBuilder.Redirect.INHERIT);
+
+        log.debug("Starting streaming process {}", this.command);
+
+        return new Execution(pb.start(), this.input == null, this.output == null);
+    }
+
+    /**
+     * Runs the process with its input and output both redirected to files (or nothing piped at all) and waits
+     * for it to exit.
+     *
+     * @return the exit value of the process
+     */
+    public int run() throws IOException, InterruptedException {
+        return this.run(null, null);
+    }
+
+    /**
+     * Runs the process, pumping the source into its stdin and its stdout into the target, and waits for it to exit.
+     *
+     * @param source the channel to write to stdin, or null to just close stdin (must be null if the input is a file)
+     * @param target the channel to write stdout to, or null to discard it (must be null if the output is a file)
+     * @return the exit value of the process
+     * @throws IllegalArgumentException if a channel was passed for a stream redirected to a file
+     */
+    public int run(ReadableByteChannel source, WritableByteChannel target) throws IOException, InterruptedException {
+        if (source != null && this.input != null) {
+            throw new IllegalArgumentException("Source channel not allowed since input is the file " + this.input);
+        }
+        if (target != null && this.output != null) {
+            throw new IllegalArgumentException("Target channel not allowed since output is the file " + this.output);
+        }
+
+        final Execution execution = this.start();
+        final Process process = execution.getProcess();
+        try {
+            Future<?> stdinPump = null;
+            if (execution.hasStdin()) {
+                if (source == null) {
+                    process.getOutputStream().close();
+                } else if (!execution.hasStdout()) {
+                    // nothing else to pump, so no need for another thread
+                    try (OutputStream stdin = process.getOutputStream()) {
+                        pump(source, stdin);
+                    }
+                } else {
+                    stdinPump = getPumps().submit(() -> {
+                        try (OutputStream stdin = process.getOutputStream()) {
+                            pump(source, stdin);
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            if (execution.hasStdout()) {
+                try (InputStream stdout = process.getInputStream()) {
+                    pump(stdout, target);
+                }
+            }
+
+            if (stdinPump != null) {
+                try {
+                    stdinPump.get();
+                } catch (ExecutionException e) {
+                    // e.g. the process exited before reading all its input
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException)e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+
+            return execution.waitFor();
+        } finally {
+            process.destroy();
+        }
+    }
+
+    /**
+     * Copies everything from the source to the target (or discards it if the target is null) through a pooled heap
+     * buffer.
+     *
+     * @return the number of bytes copied
+     */
+    static public long pump(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        final byte[] buffer = borrowBuffer();
+        try {
+            final ByteBuffer bb = ByteBuffer.wrap(buffer);
+            long count = 0;
+            while (source.read(bb) >= 0) {
+                bb.flip();
+                count += bb.remaining();
+                if (target != null) {
+                    while (bb.hasRemaining()) {
+                        target.write(bb);
+                    }
+                }
+                bb.clear();
+            }
+            return count;
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    static private long pump(ReadableByteChannel source, OutputStream target) throws IOException {
+        final byte[] buffer = borrowBuffer();
+        try {
+            final ByteBuffer bb = ByteBuffer.wrap(buffer);
+            long count = 0;
+            int n;
+            while ((n = source.read(bb)) >= 0) {
+                target.write(buffer, 0, n);
+                count += n;
+                bb.clear();
+            }
+            return count;
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    static private long pump(InputStream source, WritableByteChannel target) throws IOException {
+        final byte[] buffer = borrowBuffer();
+        try {
+            long count = 0;
+            int n;
+            while ((n = source.read(buffer)) >= 0) {
+                if (target != null) {
+                    final ByteBuffer bb = ByteBuffer.wrap(buffer, 0, n);
+                    while (bb.hasRemaining()) {
+                        target.write(bb);
+                    }
+                }
+                count += n;
+            }
+            return count;
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    static private byte[] borrowBuffer() {
+        final byte[] buffer = BUFFERS.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    static private ExecutorService getPumps() {
+        return PUMPS.once(new MemoizedInitializer.Initializer<ExecutorService>() {
+            @Override
+            public ExecutorService init() {
+                final AtomicInteger count = new AtomicInteger();
+                return Executors.newCachedThreadPool(r -> {
+                    final Thread thread = new Thread(r, "jne-stream-pump-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        });
+    }
+
+    static public class Execution {
+
+        private final Process process;
+        private final WritableByteChannel stdin;
+        private final ReadableByteChannel stdout;
+
+        Execution(Process process, boolean pipedStdin, boolean pipedStdout) {
+            this.process = process;
+            this.stdin = pipedStdin ? Channels.newChannel(process.getOutputStream()) : null;
+            this.stdout = pipedStdout ? Channels.newChannel(process.getInputStream()) : null;
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        public boolean hasStdin() {
+            return this.stdin != null;
+        }
+
+        public boolean hasStdout() {
+            return this.stdout != null;
+        }
+
+        /**
+         * The stdin of the process, which must be closed once everything is written.
+         */
+        public WritableByteChannel stdin() {
+            if (this.stdin == null) {
+                throw new IllegalStateException("Stdin was redirected from a file");
+            }
+            return this.stdin;
+        }
+
+        /**
+         * The stdout of the process, which must be read fully (or closed) for the process to exit.
+         */
+        public ReadableByteChannel stdout() {
+            if (this.stdout == null) {
+                throw new IllegalStateException("Stdout was redirected to a file");
+            }
+            return this.stdout;
+        }
+
+        public int waitFor() throws InterruptedException {
+            return this.process.waitFor();
+        }
+
+    }
+
+}
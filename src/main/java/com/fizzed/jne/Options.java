@@ -21,6 +21,8 @@ package com.fizzed.jne;
  */
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Options {
 
@@ -31,14 +33,27 @@ public class Options {
     static public final String SYSPROP_EXTRACT_DIR = "jne.extract.dir";
     static public final String SYSPROP_CLEANUP_EXTRACTED = "jne.cleanup.extracted";
     static public final String SYSPROP_X32_EXE_FALLBACK = "jne.x32.exe.fallback";
+    static public final String SYSPROP_EXTRACT_DIR_CANDIDATES = "jne.extract.dir.candidates";
+    static public final String SYSPROP_MEMORY_EXTRACT = "jne.memory.extract";
+    static public final String SYSPROP_MEMORY_EXTRACT_BUDGET = "jne.memory.extract.budget";
+    static public final String SYSPROP_LOAD_FROM_MEMORY = "jne.load.from.memory";
+    static public final String SYSPROP_SHARED_CACHE_DIR = "jne.shared.cache.dir";
+    static public final String SYSPROP_PREPARED_DIR = "jne.prepared.dir";
     
     private HardwareArchitecture hardwareArchitecture;
     private OperatingSystem operatingSystem;
     private ABI abi;
     private String resourcePrefix;
     private File extractDir;
+    private List<File> extractDirCandidates;
     private boolean x32ExecutableFallback;
     private boolean cleanupExtracted;
+    private boolean memoryExtract;
+    private long memoryExtractBudget;
+    private boolean loadFromMemory;
+    private File sharedCacheDir;
+    private File preparedDir;
+    private JneListener listener;
 
     public Options() {
         // only if you need to override the auto detected values!
@@ -47,8 +62,14 @@ public class Options {
         this.abi = null;
         this.resourcePrefix = System.getProperty(SYSPROP_RESOURCE_PREFIX, "/jne");
         this.extractDir = getSystemPropertyAsFile(SYSPROP_EXTRACT_DIR, null);
+        this.extractDirCandidates = getSystemPropertyAsFiles(SYSPROP_EXTRACT_DIR_CANDIDATES, defaultExtractDirCandidates());
         this.x32ExecutableFallback = getSystemPropertyAsBoolean(SYSPROP_X32_EXE_FALLBACK, false);
         this.cleanupExtracted = getSystemPropertyAsBoolean(SYSPROP_CLEANUP_EXTRACTED, true);
+        this.memoryExtract = getSystemPropertyAsBoolean(SYSPROP_MEMORY_EXTRACT, false);
+        this.memoryExtractBudget = getSystemPropertyAsLong(SYSPROP_MEMORY_EXTRACT_BUDGET, 64L * 1024L * 1024L);
+        this.loadFromMemory = getSystemPropertyAsBoolean(SYSPROP_LOAD_FROM_MEMORY, false);
+        this.sharedCacheDir = getSystemPropertyAsFile(SYSPROP_SHARED_CACHE_DIR, null);
+        this.preparedDir = getSystemPropertyAsFile(SYSPROP_PREPARED_DIR, null);
     }
 
     public HardwareArchitecture getHardwareArchitecture() {
@@ -107,6 +128,22 @@ public class Options {
         return this;
     }
 
+    public List<File> getExtractDirCandidates() {
+        return extractDirCandidates;
+    }
+
+    /**
+     * Sets the directories, in prioritized order, that a one-time use temporary directory may be created in when
+     * no extract directory is set. On linux, any candidate on a filesystem mounted "noexec" (e.g. a hardened /tmp)
+     * is skipped, since libraries and executables extracted there would fail to load. Defaults to the java.io.tmpdir,
+     * the user cache directory, $XDG_RUNTIME_DIR, then the application (working) directory.
+     * @param extractDirCandidates The prioritized directories to create a temporary directory in
+     */
+    public Options setExtractDirCandidates(List<File> extractDirCandidates) {
+        this.extractDirCandidates = extractDirCandidates;
+        return this;
+    }
+
     public boolean isX32ExecutableFallback() {
         return x32ExecutableFallback;
     }
@@ -137,6 +174,112 @@ public class Options {
         return this;
     }
 
+    public boolean isMemoryExtract() {
+        return memoryExtract;
+    }
+
+    /**
+     * Sets whether extracted files should prefer a memory-backed filesystem
+     * (e.g. /dev/shm or $XDG_RUNTIME_DIR on a tmpfs that is not mounted noexec)
+     * over the extract dir. Useful for short-lived JVMs where writing to disk
+     * is wasted effort. Only applies on linux, and only while the process has
+     * not exceeded its memory extract budget, otherwise files are extracted to
+     * the regular directory. Defaults to false.
+     * @param memoryExtract If true then extract to a memory-backed filesystem
+     *      if one is available.
+     */
+    public Options setMemoryExtract(boolean memoryExtract) {
+        this.memoryExtract = memoryExtract;
+        return this;
+    }
+
+    public long getMemoryExtractBudget() {
+        return memoryExtractBudget;
+    }
+
+    /**
+     * Sets the maximum total number of bytes this process will extract to a
+     * memory-backed filesystem when memory extract is enabled. A resource that
+     * would exceed the budget (or whose size is unknown) is extracted to the
+     * regular directory instead. Defaults to 64 MB.
+     * @param memoryExtractBudget The max number of bytes to extract to memory
+     */
+    public Options setMemoryExtractBudget(long memoryExtractBudget) {
+        this.memoryExtractBudget = memoryExtractBudget;
+        return this;
+    }
+
+    public boolean isLoadFromMemory() {
+        return loadFromMemory;
+    }
+
+    /**
+     * Sets whether libraries should be loaded straight from the jar without
+     * ever being extracted to disk. The library is streamed into an anonymous
+     * memory file (memfd) and loaded from there. Only supported on linux with
+     * java 22+, otherwise (or if loading from memory fails for any reason) the
+     * library is extracted and loaded as usual. The jar of jne must also be
+     * built with java 22+ to include the memfd loader. Defaults to false.
+     * @param loadFromMemory If true then load libraries from memory if
+     *      supported.
+     */
+    public Options setLoadFromMemory(boolean loadFromMemory) {
+        this.loadFromMemory = loadFromMemory;
+        return this;
+    }
+
+    public File getSharedCacheDir() {
+        return sharedCacheDir;
+    }
+
+    /**
+     * Sets a host-level directory (e.g. /var/cache/jne) shared by every
+     * application using JNE. Resources are extracted into it only once per
+     * unique content (keyed by the size and CRC32 recorded in the jar, and
+     * the CRC32 of a cached file is verified once per process before it's
+     * used), and then materialized into the extract dir via a hard link, or a
+     * copy-on-write clone where the filesystem supports it, falling back to a
+     * plain copy. Defaults to null (disabled).
+     * @param sharedCacheDir The shared cache directory or null to disable
+     */
+    public Options setSharedCacheDir(File sharedCacheDir) {
+        this.sharedCacheDir = sharedCacheDir;
+        return this;
+    }
+
+    public File getPreparedDir() {
+        return preparedDir;
+    }
+
+    /**
+     * Sets a directory of natives prepared ahead-of-time by PrepareMain (e.g.
+     * while building a container image). Its manifest is trusted completely,
+     * so finding a prepared executable, library, or file is a single map
+     * lookup, without searching resources, opening jars, or verifying hashes.
+     * Anything not in the manifest is found the regular way. Defaults to null
+     * (disabled).
+     * @param preparedDir The prepared directory or null to disable
+     */
+    public Options setPreparedDir(File preparedDir) {
+        this.preparedDir = preparedDir;
+        return this;
+    }
+
+    public JneListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets a listener notified of lookups, extractions, and loads done with
+     * these options, in addition to any registered globally via
+     * JNE.addListener. Defaults to null (none).
+     * @param listener The listener or null for none
+     */
+    public Options setListener(JneListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
     static private File getSystemPropertyAsFile(String key, File defaultValue) {
         String v = System.getProperty(key);
         if (v != null && !v.equals("")) {
@@ -146,6 +289,67 @@ public class Options {
         }
     }
     
+    static private List<File> getSystemPropertyAsFiles(String key, List<File> defaultValue) {
+        String v = System.getProperty(key);
+        if (v != null && !v.equals("")) {
+            List<File> files = new ArrayList<>();
+            for (String s : v.split(File.pathSeparator)) {
+                if (!s.trim().isEmpty()) {
+                    files.add(new File(s.trim()));
+                }
+            }
+            return files;
+        } else {
+            return defaultValue;
+        }
+    }
+
+    static private List<File> defaultExtractDirCandidates() {
+        final List<File> dirs = new ArrayList<>();
+
+        // the jvm temp dir is what we have always used
+        final String tmpDir = System.getProperty("java.io.tmpdir");
+        if (tmpDir != null && !tmpDir.isEmpty()) {
+            dirs.add(new File(tmpDir));
+        }
+
+        // user cache dir (e.g. ~/.cache/jne), which is rarely mounted noexec
+        final String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+        final String userHome = System.getProperty("user.home");
+        if (xdgCacheHome != null && !xdgCacheHome.isEmpty()) {
+            dirs.add(new File(xdgCacheHome, "jne"));
+        } else if (userHome != null && !userHome.isEmpty()) {
+            dirs.add(new File(new File(userHome, ".cache"), "jne"));
+        }
+
+        // per-user runtime dir (e.g. /run/user/1000)
+        final String xdgRuntimeDir = System.getenv("XDG_RUNTIME_DIR");
+        if (xdgRuntimeDir != null && !xdgRuntimeDir.isEmpty()) {
+            dirs.add(new File(xdgRuntimeDir));
+        }
+
+        // app (working) dir as a last resort
+        final String userDir = System.getProperty("user.dir");
+        if (userDir != null && !userDir.isEmpty()) {
+            dirs.add(new File(userDir));
+        }
+
+        return dirs;
+    }
+
+    static private long getSystemPropertyAsLong(String key, long defaultValue) {
+        String v = System.getProperty(key);
+        if (v != null && !v.equals("")) {
+            try {
+                return Long.parseLong(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid long value for system property [" + key + "]");
+            }
+        } else {
+            return defaultValue;
+        }
+    }
+
     static private boolean getSystemPropertyAsBoolean(String key, boolean defaultValue) {
         String v = System.getProperty(key);
         if (v != null) {
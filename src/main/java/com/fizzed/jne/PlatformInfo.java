@@ -32,8 +32,15 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static java.util.Arrays.asList;
 import static java.util.Optional.ofNullable;
@@ -41,6 +48,8 @@ import static java.util.Optional.ofNullable;
 public class PlatformInfo {
     static private final Logger log = LoggerFactory.getLogger(PlatformInfo.class);
 
+    static private final MemoizedInitializer<ExecutorService> PROBE_EXECUTOR = new MemoizedInitializer<>();
+
     final private OperatingSystem operatingSystem;
     final private HardwareArchitecture hardwareArchitecture;
     final private String name;
@@ -134,7 +143,8 @@ public class PlatformInfo {
      * Detects the platform details of the operating system and hardware architecture of the host system
      * by utilizing the provided {@link SystemExecutor} for executing system-level commands. The method
      * tries to determine the platform by executing standard commands (like 'uname') and by querying
-     * platform-specific information such as the Windows Registry if necessary.
+     * platform-specific information such as the Windows Registry if necessary. On linux, the same information is first
+     * read from files in /proc (and libc itself), which spawns no processes, and commands are only executed as a fallback.
      *
      * @param systemExecutor the instance of {@link SystemExecutor} used to execute commands on the host system.
      *                        It is essential for gathering system information to deduce the operating system
@@ -144,7 +154,24 @@ public class PlatformInfo {
      *         If the platform cannot be determined, the returned object may contain null values or default configurations.
      */
     static public PlatformInfo detect(SystemExecutor systemExecutor, Detect... detects) {
+        return detect(systemExecutor, getProbeExecutor(), detects);
+    }
+
+    /**
+     * Detects the platform details the same as {@link #detect(SystemExecutor, Detect...)}, but with the probes that
+     * follow 'uname -a' (e.g. /etc/os-release, 'sw_vers', 'ldd') run on the provided executor. They're independent of
+     * each other, so they run concurrently and detection takes about as long as the slowest of them, rather than their
+     * sum (which matters most over ssh). Their results are merged in the same order regardless.
+     *
+     * @param systemExecutor the instance of {@link SystemExecutor} used to execute commands on the host system
+     * @param executor the executor to run the probes on (e.g. Runnable::run to run them one after another)
+     * @param detects what to detect beyond the os and arch
+     * @return a {@link PlatformInfo} object containing detailed information about the platform
+     */
+    static public PlatformInfo detect(SystemExecutor systemExecutor, Executor executor, Detect... detects) {
+        Objects.requireNonNull(executor, "executor was null");
         final long startTime = System.currentTimeMillis();
+        final Object event = JneEvents.beginPlatformDetect();
 
         // we should now be able to detect the operating system and architecture
         final Set<Detect> detectSet = EnumSet.copyOf(Arrays.asList(detects));
@@ -158,25 +185,43 @@ public class PlatformInfo {
         LibC libC = null;
         SemanticVersion libCVersion = null;
 
-        // try uname first (if that fails, we are likely on windows)
-        try {
-            log.debug("Trying 'uname -a' to detect system platform...");
-            final String unameOutput = systemExecutor.execProcess(asList(0), "uname", "-a");
+        // on linux, everything 'uname -a' reports can be read from /proc/sys/kernel, without spawning a process
+        if (systemExecutor.isFileReadCheap()) {
+            final Object procEvent = JneEvents.beginPlatformProbe();
             try {
-                uname = Uname.parse(unameOutput);
-            } catch (Exception ex) {
-                log.warn("Unable to parse 'uname -a' output: {}", ex.getMessage());
+                log.debug("Trying /proc/sys/kernel to detect system platform...");
+                uname = Uname.parse(LinuxProc.readUname(systemExecutor, executor));
+            } catch (Exception e) {
+                log.debug("Unable to read /proc/sys/kernel to detect system platform: {}", e.getMessage());
                 uname = null;
             }
-        } catch (Exception e) {
-            log.debug("Unable to execute 'uname -a' to detect system platform: {}", e.getMessage());
-            uname = null;
+            JneEvents.endPlatformProbe(procEvent, "/proc/sys/kernel", uname != null);
+        }
+
+        // otherwise try uname (if that fails, we are likely on windows)
+        if (uname == null) {
+            final Object unameEvent = JneEvents.beginPlatformProbe();
+            try {
+                log.debug("Trying 'uname -a' to detect system platform...");
+                final String unameOutput = systemExecutor.execProcess(asList(0), "uname", "-a");
+                try {
+                    uname = Uname.parse(unameOutput);
+                } catch (Exception ex) {
+                    log.warn("Unable to parse 'uname -a' output: {}", ex.getMessage());
+                    uname = null;
+                }
+            } catch (Exception e) {
+                log.debug("Unable to execute 'uname -a' to detect system platform: {}", e.getMessage());
+                uname = null;
+            }
+            JneEvents.endPlatformProbe(unameEvent, "uname", uname != null);
         }
 
         // if uname fails, we should try to see if we're on windows, or someone may have installed "cygwin" or "msys"
         // on windows, and we may actually want to try the registry as well
         if (uname == null || (uname.getSource().toLowerCase().contains("cygwin") || uname.getSource().toLowerCase().contains("msys"))) {
             // on windows, we can grab a better version via the registry via 2 queries
+            final Object registryEvent = JneEvents.beginPlatformProbe();
             try {
                 log.debug("Trying windows registry to detect system platform...");
                 WindowsRegistry windowsRegistryCurrentVersion = WindowsRegistry.queryCurrentVersion(systemExecutor);
@@ -261,8 +306,10 @@ public class PlatformInfo {
                 kernelVersion = SemanticVersion.parse(kernelVersionString);
                 name = "Windows";
                 displayName = productName;
+                JneEvents.endPlatformProbe(registryEvent, "windows-registry", true);
             } catch (Exception e) {
                 log.debug("Unable to query windows registry to detect system platform: {}", e.getMessage());
+                JneEvents.endPlatformProbe(registryEvent, "windows-registry", false);
             }
         }
 
@@ -312,125 +359,214 @@ public class PlatformInfo {
             version = null;
         }
 
+        // once the os is known, the remaining probes are independent of each other (and each is a process spawn, or a
+        // network round trip over ssh), so they all run concurrently, then are merged in the same order as always
+        final boolean osRelease = operatingSystem == OperatingSystem.LINUX || operatingSystem == OperatingSystem.FREEBSD;
+        final boolean sysctl = operatingSystem == OperatingSystem.NETBSD || operatingSystem == OperatingSystem.FREEBSD || operatingSystem == OperatingSystem.OPENBSD;
+        final boolean solaris = operatingSystem == OperatingSystem.SOLARIS;
+        final boolean swVers = operatingSystem == OperatingSystem.MACOS;
+        final boolean libc = operatingSystem == OperatingSystem.LINUX && (detectSet.contains(Detect.ALL) || detectSet.contains(Detect.LIBC));
+
+        final CompletableFuture<OsReleaseFile> osReleaseFuture = probe(osRelease, executor, () -> probeOsRelease(systemExecutor));
+        final CompletableFuture<HardwareArchitecture> sysctlFuture = probe(sysctl, executor, () -> probeSysctlMachineArch(systemExecutor));
+        final CompletableFuture<HardwareArchitecture> isaInfoFuture = probe(solaris, executor, () -> probeIsaInfo(systemExecutor));
+        final CompletableFuture<String> releaseFileFuture = probe(solaris, executor, () -> probeReleaseFile(systemExecutor));
+        final CompletableFuture<MacSwVers> swVersFuture = probe(swVers, executor, () -> probeSwVers(systemExecutor));
+        final CompletableFuture<LibCResult> libcFuture = probe(libc, executor, () -> probeLibC(systemExecutor));
+
         // if there is an /etc/os-release file, we can get a lot of what we need out of it
-        OsReleaseFile osReleaseFile = null;
-        // only try this on platforms we know have it
-        if (operatingSystem == OperatingSystem.LINUX || operatingSystem == OperatingSystem.FREEBSD) {
-            log.debug("Trying /etc/os-release to detect platform info...");
-            try {
-                String osReleaseFileOutput = systemExecutor.catFile("/etc/os-release");
-                osReleaseFile = OsReleaseFile.parse(osReleaseFileOutput);
-                name = osReleaseFile.getName();
-                // if the version isn't null, we'll use that to build our display name
-                if (osReleaseFile.getVersion() != null) {
-                    displayName = name + " " + osReleaseFile.getVersion();
-                } else if (osReleaseFile.getPrettyName() != null) {
-                    displayName = osReleaseFile.getPrettyName();
-                } else if (osReleaseFile.getVersionId() != null) {
-                    displayName = name + " " + osReleaseFile.getVersionId();
-                } else {
-                    // just fallback to the name
-                    displayName = name;
-                }
+        final OsReleaseFile osReleaseFile = osReleaseFuture.join();
+        if (osReleaseFile != null) {
+            name = osReleaseFile.getName();
+            // if the version isn't null, we'll use that to build our display name
+            if (osReleaseFile.getVersion() != null) {
+                displayName = name + " " + osReleaseFile.getVersion();
+            } else if (osReleaseFile.getPrettyName() != null) {
+                displayName = osReleaseFile.getPrettyName();
+            } else if (osReleaseFile.getVersionId() != null) {
+                displayName = name + " " + osReleaseFile.getVersionId();
+            } else {
+                // just fallback to the name
+                displayName = name;
+            }
 
-                try {
-                    version = SemanticVersion.parse(osReleaseFile.getVersionId());
-                } catch (Exception ex) {
-                    log.warn("Unable to parse /etc/os-release VERSION_ID: {}", ex.getMessage());
-                }
-            } catch (Exception e) {
-                log.debug("Unable to read /etc/os-release file: {}", e.getMessage());
+            try {
+                version = SemanticVersion.parse(osReleaseFile.getVersionId());
+            } catch (Exception ex) {
+                log.warn("Unable to parse /etc/os-release VERSION_ID: {}", ex.getMessage());
             }
         }
 
         // on netbsd and freebsd, to get the better architecture, we need to call sysctl
-        if (operatingSystem == OperatingSystem.NETBSD || operatingSystem == OperatingSystem.FREEBSD || operatingSystem == OperatingSystem.OPENBSD) {
-            // detect better hardware architecture
-            try {
-                String sysctlMachineArchInfo = systemExecutor.execProcess("/sbin/sysctl", "-n", "hw.machine_arch");
-                NativeTarget nativeTarget = NativeTarget.detectFromText(sysctlMachineArchInfo);
-                if (nativeTarget.getHardwareArchitecture() != null) {
-                    hardwareArchitecture = nativeTarget.getHardwareArchitecture();
-                }
-            } catch (Exception e) {
-                log.warn("Unable to detect more accurate hardware architecture from 'sysctl -n hw.machine_arch' output: {}", e.getMessage());
-            }
+        final HardwareArchitecture sysctlHardwareArchitecture = sysctlFuture.join();
+        if (sysctlHardwareArchitecture != null) {
+            hardwareArchitecture = sysctlHardwareArchitecture;
         }
 
         // on solaris/illumnos, uname does everything we need, but for historical reasons it will always report its
         // hardware architecture as i386 for some reason, we can detect it better with 'isainfo -k', plus we can probably
         // grab more information from the /etc/release file available on many illumnos-based distros
-        if (operatingSystem == OperatingSystem.SOLARIS) {
-            // detect better hardware architecture
-            try {
-                String isaInfo = systemExecutor.execProcess("isainfo", "-k");
-                NativeTarget nativeTarget = NativeTarget.detectFromText(isaInfo);
-                if (nativeTarget.getHardwareArchitecture() != null) {
-                    hardwareArchitecture = nativeTarget.getHardwareArchitecture();
-                }
-            } catch (Exception e) {
-                log.warn("Unable to detect more accurate hardware architecture from 'isainfo -k' output: {}", e.getMessage());
-            }
-
-            // there could be a /etc/release file
-            log.debug("Trying /etc/release to detect platform info...");
-            try {
-                String releaseFileOutput = systemExecutor.catFile("/etc/release");
-                // the first line usually contains the display name of the distro
-                if (releaseFileOutput != null && releaseFileOutput.contains("\n")) {
-                    String[] releaseFileOutputLines = releaseFileOutput.split("\n");
-                    if (releaseFileOutputLines.length > 1) {
-                        String maybeDisplayName = releaseFileOutputLines[0].trim();
-                        // this line should have some kind of digit in it
-                        if (maybeDisplayName.matches(".*\\d+.*")) {
-                            displayName = maybeDisplayName;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.debug("Unable to read /etc/release file: {}", e.getMessage());
-            }
+        final HardwareArchitecture isaInfoHardwareArchitecture = isaInfoFuture.join();
+        if (isaInfoHardwareArchitecture != null) {
+            hardwareArchitecture = isaInfoHardwareArchitecture;
+        }
+        final String releaseFileDisplayName = releaseFileFuture.join();
+        if (releaseFileDisplayName != null) {
+            displayName = releaseFileDisplayName;
         }
 
         // on macos, we can grab a better version
-        if (operatingSystem == OperatingSystem.MACOS) {
-            log.debug("Trying macos 'sw_vers' to detect platform info...");
-            MacSwVers swVers = null;
+        final MacSwVers macSwVers = swVersFuture.join();
+        if (macSwVers != null) {
+            name = macSwVers.getProductName();
+            displayName = macSwVers.getProductName() + " " + macSwVers.getProductVersion();
             try {
-                String swVersOutput = systemExecutor.execProcess("sw_vers");
-                swVers = MacSwVers.parse(swVersOutput);
-                name = swVers.getProductName();
-                displayName = swVers.getProductName() + " " + swVers.getProductVersion();
-                version = SemanticVersion.parse(swVers.getProductVersion());
+                version = SemanticVersion.parse(macSwVers.getProductVersion());
                 // see if we can make it even prettier, with its name
                 final String versionName = MacReleases.getVersionName(version.getMajor(), version.getMinor());
                 if (versionName != null) {
                     displayName += " (" + versionName + ")";
                 }
             } catch (Exception e) {
-                log.warn("Unable to execute 'sw_ver' to detect system platform: {}", e.getMessage());
+                log.warn("Unable to parse 'sw_vers' ProductVersion: {}", e.getMessage());
             }
         }
 
-        if (detectSet.contains(Detect.ALL) || detectSet.contains(Detect.LIBC)) {
-            if (operatingSystem == OperatingSystem.LINUX) {
-                // let's try to detect the libc version
-                LibCResult libcResult = detectLibC(systemExecutor);
-                if (libcResult != null) {
-                    libC = libcResult.getLibC();
-                    libCVersion = libcResult.getVersion();
-                }
-            }
+        final LibCResult libcResult = libcFuture.join();
+        if (libcResult != null) {
+            libC = libcResult.getLibC();
+            libCVersion = libcResult.getVersion();
         }
 
         log.debug("Completed detecting platform info in {} ms", (System.currentTimeMillis() - startTime));
+        JneStats.getInstance().platformDetected(System.currentTimeMillis() - startTime);
+        JneEvents.endPlatformDetect(event, Objects.toString(operatingSystem, null), Objects.toString(hardwareArchitecture, null), displayName);
 
         // did it work?
         if (operatingSystem == null || hardwareArchitecture == null) {
             throw new IllegalStateException("Unable to detect platform details (both os and arch were null)");
         }
 
-        return new PlatformInfo(operatingSystem, hardwareArchitecture, name, displayName, version, kernelVersion, ofNullable(uname).map(Uname::getSource).orElse(null), libC, libCVersion);
+        final PlatformInfo platformInfo = new PlatformInfo(operatingSystem, hardwareArchitecture, name, displayName, version, kernelVersion, ofNullable(uname).map(Uname::getSource).orElse(null), libC, libCVersion);
+
+        final JneListener listener = JneListeners.resolve(null);
+        if (listener != null) {
+            listener.onPlatformDetected(platformInfo, System.currentTimeMillis() - startTime);
+        }
+
+        return platformInfo;
+    }
+
+    static private <T> CompletableFuture<T> probe(boolean enabled, Executor executor, Supplier<T> probe) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(probe, executor);
+    }
+
+    static private OsReleaseFile probeOsRelease(SystemExecutor systemExecutor) {
+        log.debug("Trying /etc/os-release to detect platform info...");
+        OsReleaseFile osReleaseFile = null;
+        final Object osReleaseEvent = JneEvents.beginPlatformProbe();
+        try {
+            String osReleaseFileOutput = systemExecutor.catFile("/etc/os-release");
+            osReleaseFile = OsReleaseFile.parse(osReleaseFileOutput);
+        } catch (Exception e) {
+            log.debug("Unable to read /etc/os-release file: {}", e.getMessage());
+        }
+        JneEvents.endPlatformProbe(osReleaseEvent, "/etc/os-release", osReleaseFile != null);
+        return osReleaseFile;
+    }
+
+    static private HardwareArchitecture probeSysctlMachineArch(SystemExecutor systemExecutor) {
+        try {
+            String sysctlMachineArchInfo = systemExecutor.execProcess("/sbin/sysctl", "-n", "hw.machine_arch");
+            return NativeTarget.detectFromText(sysctlMachineArchInfo).getHardwareArchitecture();
+        } catch (Exception e) {
+            log.warn("Unable to detect more accurate hardware architecture from 'sysctl -n hw.machine_arch' output: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static private HardwareArchitecture probeIsaInfo(SystemExecutor systemExecutor) {
+        try {
+            String isaInfo = systemExecutor.execProcess("isainfo", "-k");
+            return NativeTarget.detectFromText(isaInfo).getHardwareArchitecture();
+        } catch (Exception e) {
+            log.warn("Unable to detect more accurate hardware architecture from 'isainfo -k' output: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static private String probeReleaseFile(SystemExecutor systemExecutor) {
+        log.debug("Trying /etc/release to detect platform info...");
+        try {
+            String releaseFileOutput = systemExecutor.catFile("/etc/release");
+            // the first line usually contains the display name of the distro
+            if (releaseFileOutput != null && releaseFileOutput.contains("\n")) {
+                String[] releaseFileOutputLines = releaseFileOutput.split("\n");
+                if (releaseFileOutputLines.length > 1) {
+                    String maybeDisplayName = releaseFileOutputLines[0].trim();
+                    // this line should have some kind of digit in it
+                    if (maybeDisplayName.matches(".*\\d+.*")) {
+                        return maybeDisplayName;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Unable to read /etc/release file: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    static private MacSwVers probeSwVers(SystemExecutor systemExecutor) {
+        log.debug("Trying macos 'sw_vers' to detect platform info...");
+        MacSwVers swVers = null;
+        final Object swVersEvent = JneEvents.beginPlatformProbe();
+        try {
+            String swVersOutput = systemExecutor.execProcess("sw_vers");
+            swVers = MacSwVers.parse(swVersOutput);
+        } catch (Exception e) {
+            log.warn("Unable to execute 'sw_ver' to detect system platform: {}", e.getMessage());
+        }
+        JneEvents.endPlatformProbe(swVersEvent, "sw_vers", swVers != null);
+        return swVers;
+    }
+
+    static private LibCResult probeLibC(SystemExecutor systemExecutor) {
+        // let's try to detect the libc version (from files first, without spawning any processes)
+        final Object libcEvent = JneEvents.beginPlatformProbe();
+        LibCResult libcResult = null;
+        if (systemExecutor.isFileReadCheap()) {
+            try {
+                log.debug("Trying to detect libc version via /proc/self/maps...");
+                libcResult = LinuxProc.readLibC(systemExecutor);
+            } catch (Exception e) {
+                log.debug("Unable to read /proc/self/maps to detect libc version: {}", e.getMessage());
+            }
+        }
+        if (libcResult == null || libcResult.getVersion() == null) {
+            final LibCResult execLibcResult = detectLibC(systemExecutor);
+            if (execLibcResult != null) {
+                libcResult = execLibcResult;
+            }
+        }
+        JneEvents.endPlatformProbe(libcEvent, "libc", libcResult != null);
+        return libcResult;
+    }
+
+    static private ExecutorService getProbeExecutor() {
+        return PROBE_EXECUTOR.once(new MemoizedInitializer.Initializer<ExecutorService>() {
+            @Override
+            public ExecutorService init() {
+                final AtomicInteger count = new AtomicInteger();
+                return Executors.newCachedThreadPool(r -> {
+                    final Thread thread = new Thread(r, "jne-platform-probe-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        });
     }
 
     static private LibCResult detectLibC(SystemExecutor systemExecutor) {
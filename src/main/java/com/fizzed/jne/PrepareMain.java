@@ -0,0 +1,148 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.jne.internal.PreparedManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fizzed.jne.DetectMain.logError;
+import static com.fizzed.jne.DetectMain.logInfo;
+
+/**
+ * Extracts natives ahead-of-time (e.g. while building a container image) into a directory, along with a manifest, so
+ * that at runtime JNE can be pointed at it via Options.setPreparedDir (or -Djne.prepared.dir) and skip discovery and
+ * extraction completely.
+ *
+ * java -cp app.jar:jne.jar com.fizzed.jne.PrepareMain --dir /opt/app/natives [--target linux-x64]
+ *     [--list META-INF/jne/preload.list] library:helloj executable:jcat file:resource.txt
+ *
+ * If no entries or lists are given, the entries in META-INF/jne/preload.list are prepared (the same as JneAgent).
+ */
+public class PrepareMain {
+
+    static public void main(String[] args) throws Exception {
+        File dir = null;
+        NativeTarget nativeTarget = null;
+        final List<JneAgent.Entry> entries = new ArrayList<>();
+        final List<String> listResources = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (arg.equals("--dir") && i + 1 < args.length) {
+                dir = new File(args[++i]);
+            } else if (arg.equals("--target") && i + 1 < args.length) {
+                nativeTarget = NativeTarget.fromJneTarget(args[++i]);
+            } else if (arg.equals("--list") && i + 1 < args.length) {
+                listResources.add(args[++i]);
+            } else if (arg.startsWith("--")) {
+                usage("Unsupported argument " + arg);
+                return;
+            } else {
+                entries.add(JneAgent.Entry.parse(arg));
+            }
+        }
+
+        if (dir == null) {
+            usage("Missing --dir");
+            return;
+        }
+
+        if (nativeTarget == null) {
+            nativeTarget = NativeTarget.detect();
+        }
+
+        if (entries.isEmpty() && listResources.isEmpty()) {
+            listResources.add(JneAgent.DEFAULT_LIST_RESOURCE);
+        }
+        for (String listResource : listResources) {
+            entries.addAll(JneAgent.readListResources(listResource));
+        }
+
+        logInfo("Preparing {} natives for {} in {}", entries.size(), nativeTarget.toJneTarget(), dir);
+
+        final PreparedManifest manifest = prepare(dir, nativeTarget, entries);
+
+        logInfo("Prepared {} natives in {}", manifest.getFiles().size(), new File(dir, PreparedManifest.FILE_NAME));
+    }
+
+    static PreparedManifest prepare(File dir, NativeTarget nativeTarget, List<JneAgent.Entry> entries) throws IOException {
+        Files.createDirectories(dir.toPath());
+
+        final Options options = new Options()
+            .setOperatingSystem(nativeTarget.getOperatingSystem())
+            .setHardwareArchitecture(nativeTarget.getHardwareArchitecture())
+            .setAbi(nativeTarget.getAbi())
+            .setExtractDir(dir)
+            .setCleanupExtracted(false)
+            .setPreparedDir(null);
+
+        final PreparedManifest manifest = new PreparedManifest(dir, nativeTarget.toJneTarget());
+
+        for (JneAgent.Entry entry : entries) {
+            final String type = entry.getType().name().toLowerCase();
+            File file;
+            switch (entry.getType()) {
+                case LIBRARY:
+                    file = JNE.findLibrary(entry.getName(), options);
+                    break;
+                case EXECUTABLE:
+                    file = JNE.findExecutable(entry.getName(), options);
+                    break;
+                default:
+                    file = JNE.findFile(entry.getName(), options);
+                    break;
+            }
+
+            if (file == null) {
+                logError("Unable to find {} {} for {}", type, entry.getName(), nativeTarget.toJneTarget());
+                throw new ResourceNotFoundException("Resource " + type + " " + entry.getName() + " not found");
+            }
+
+            // resources that were already plain files (e.g. while developing) were not extracted into the dir
+            if (!dir.getAbsoluteFile().equals(file.getAbsoluteFile().getParentFile())) {
+                final File target = new File(dir, file.getName());
+                Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                target.setExecutable(true);
+                file = target;
+            }
+
+            logInfo("  {} {} -> {}", type, entry.getName(), file.getName());
+            manifest.put(type, entry.getName(), file);
+        }
+
+        manifest.store();
+
+        return manifest;
+    }
+
+    static private void usage(String error) {
+        logError(error);
+        logInfo("Usage: PrepareMain --dir <dir> [--target <jne-target e.g. linux-x64>] [--list <resource>] [library:<name>] [executable:<name>] [file:<name>]");
+        System.exit(1);
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.jne.OperatingSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materializes a file from a shared cache into another directory as cheaply as the filesystem allows. A hard link
+ * shares the same inode (and page cache), a copy-on-write clone (reflink) shares the same blocks, and a plain copy is
+ * the last resort.
+ */
+public class FileMaterializer {
+    static private final Logger log = LoggerFactory.getLogger(FileMaterializer.class);
+
+    // whether a reflink works between the dirs, so "cp" is only spawned once for a pair of dirs it doesn't work on
+    static private final ConcurrentHashMap<String, Boolean> REFLINK_SUPPORTED = new ConcurrentHashMap<>();
+
+    public enum Method {
+        HARDLINK,
+        REFLINK,
+        COPY
+    }
+
+    private final OperatingSystem os;
+    private boolean hardLinkEnabled;
+    private boolean reflinkEnabled;
+
+    public FileMaterializer(OperatingSystem os) {
+        this.os = os;
+        this.hardLinkEnabled = true;
+        this.reflinkEnabled = os == OperatingSystem.LINUX || os == OperatingSystem.MACOS;
+    }
+
+    public boolean isHardLinkEnabled() {
+        return hardLinkEnabled;
+    }
+
+    public FileMaterializer setHardLinkEnabled(boolean hardLinkEnabled) {
+        this.hardLinkEnabled = hardLinkEnabled;
+        return this;
+    }
+
+    public boolean isReflinkEnabled() {
+        return reflinkEnabled;
+    }
+
+    public FileMaterializer setReflinkEnabled(boolean reflinkEnabled) {
+        this.reflinkEnabled = reflinkEnabled;
+        return this;
+    }
+
+    /**
+     * Materializes the source file as the target file, replacing the target if it already exists.
+     *
+     * @param source the file to materialize (e.g. in a shared cache)
+     * @param target the file to create
+     * @return the method that was used
+     * @throws IOException if even a plain copy failed
+     */
+    public Method materialize(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+
+        if (this.hardLinkEnabled) {
+            try {
+                Files.createLink(target, source);
+                return Method.HARDLINK;
+            } catch (IOException | UnsupportedOperationException | SecurityException e) {
+                // e.g. a different filesystem (cross-device link) or the filesystem doesn't support them
+                log.trace("Unable to hard link {} to {}: {}", target, source, e.getMessage());
+            }
+        }
+
+        if (this.reflinkEnabled && this.reflink(source, target)) {
+            return Method.REFLINK;
+        }
+
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        return Method.COPY;
+    }
+
+    /**
+     * Whether a reflink between the dirs of the source and target is known to work (or not), or null if not tried yet.
+     */
+    static Boolean isReflinkSupported(Path source, Path target) {
+        return REFLINK_SUPPORTED.get(reflinkKey(source, target));
+    }
+
+    static private String reflinkKey(Path source, Path target) {
+        return source.toAbsolutePath().getParent() + "|" + target.toAbsolutePath().getParent();
+    }
+
+    /**
+     * There is no java api for a copy-on-write clone, but "cp" will do it via the FICLONE ioctl on linux (e.g. btrfs,
+     * xfs) or clonefile() on macos (apfs), and will fail rather than copying the bytes if the filesystem can't. Whether
+     * it worked is remembered for the pair of dirs, so a filesystem that can't is only ever probed once.
+     */
+    private boolean reflink(Path source, Path target) {
+        final String key = reflinkKey(source, target);
+        if (Boolean.FALSE.equals(REFLINK_SUPPORTED.get(key))) {
+            return false;
+        }
+
+        final boolean reflinked = this.cpReflink(source, target);
+        REFLINK_SUPPORTED.put(key, reflinked);
+        return reflinked;
+    }
+
+    private boolean cpReflink(Path source, Path target) {
+        final String cloneFlag = this.os == OperatingSystem.MACOS ? "-c" : "--reflink=always";
+        try {
+            final Process process = new ProcessBuilder("cp", cloneFlag, source.toString(), target.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File("/dev/null")))
+                .start();
+            if (process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                return true;
+            }
+            process.destroyForcibly();
+        } catch (IOException e) {
+            log.trace("Unable to reflink {} to {}: {}", target, source, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // cp may have left a partial file behind
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException e) {
+            // ignore, the copy will replace it
+        }
+        return false;
+    }
+
+}
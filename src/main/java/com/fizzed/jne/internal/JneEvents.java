@@ -0,0 +1,92 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.net.URL;
+
+/**
+ * Emits Java Flight Recorder events for finding, extracting and loading natives, and for detecting the platform and
+ * java homes. On java 11+, the multi-release jar replaces this class with one that emits real JFR events (and only
+ * allocates them while a recording has them enabled). On java 8, every method is a no-op.
+ *
+ * Object event = JneEvents.beginExtract();
+ * ...
+ * JneEvents.endExtract(event, url, file, file.length());
+ */
+public class JneEvents {
+
+    static public boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * @return the event to end (or null if not recording)
+     */
+    static public Object beginLookup() {
+        return null;
+    }
+
+    static public void endLookup(Object event, String type, String name, File file) {
+        // no-op
+    }
+
+    static public Object beginExtract() {
+        return null;
+    }
+
+    static public void endExtract(Object event, URL url, File file, long bytes) {
+        // no-op
+    }
+
+    static public Object beginLoadLibrary() {
+        return null;
+    }
+
+    static public void endLoadLibrary(Object event, String name, String path, boolean success) {
+        // no-op
+    }
+
+    static public Object beginPlatformProbe() {
+        return null;
+    }
+
+    static public void endPlatformProbe(Object event, String probe, boolean success) {
+        // no-op
+    }
+
+    static public Object beginPlatformDetect() {
+        return null;
+    }
+
+    static public void endPlatformDetect(Object event, String operatingSystem, String hardwareArchitecture, String displayName) {
+        // no-op
+    }
+
+    static public Object beginJavaHomesDetect() {
+        return null;
+    }
+
+    static public void endJavaHomesDetect(Object event, int count) {
+        // no-op
+    }
+
+}
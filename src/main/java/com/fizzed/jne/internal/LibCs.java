@@ -90,6 +90,93 @@ public class LibCs {
         return null;
     }
 
+    /**
+     * Parses the /proc/self/maps file (of any dynamically linked process) to find the file path to the C library
+     * mapped into it, which is the same library "ldd /bin/ls" would report, but without spawning a process.
+     *
+     * 7fe24f4a6000-7fe24f4cc000 r--p 00000000 fe:00 17858    /usr/lib/x86_64-linux-gnu/libc.so.6
+     *
+     * @param content The full contents of /proc/self/maps
+     * @return The libc and its path (e.g., "/usr/lib/x86_64-linux-gnu/libc.so.6") or null if none was mapped
+     */
+    static public PathResult parseMapsPath(String content) {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+
+        String[] lines = content.split("\n");
+        for (String line : lines) {
+            // address perms offset dev inode pathname (which is optional)
+            String[] fields = line.trim().split("\\s+", 6);
+            if (fields.length < 6 || !fields[5].startsWith("/")) {
+                continue;
+            }
+
+            String path = fields[5].trim();
+            String fileName = path.substring(path.lastIndexOf('/') + 1).toLowerCase();
+
+            LibC libC = null;
+            if (fileName.startsWith("ld-musl") || fileName.startsWith("libc.musl")) {
+                // musl is both the dynamic loader and libc (e.g., /lib/ld-musl-x86_64.so.1)
+                libC = LibC.MUSL;
+            } else if (fileName.startsWith("libuclibc")) {
+                libC = LibC.UCLIBC;
+            } else if (fileName.startsWith("libc.so") || GLIBC_FILE_VERSION_PATTERN.matcher(fileName).matches()) {
+                // glibc (e.g., libc.so.6 or libc-2.27.so before glibc 2.34)
+                libC = LibC.GLIBC;
+            }
+
+            if (libC != null) {
+                return new PathResult(libC, path);
+            }
+        }
+
+        return null;
+    }
+
+    static final Pattern GLIBC_FILE_VERSION_PATTERN = Pattern.compile("libc-(\\d+\\.\\d+)\\.so");
+    static final Pattern GLIBC_BANNER_VERSION_PATTERN = Pattern.compile("GNU C Library[^\\n\\x00]*? version (\\d+\\.\\d+)");
+
+    /**
+     * Parses the version of glibc from the file name of its .so, which included it before glibc 2.34
+     * (e.g., "/lib/x86_64-linux-gnu/libc-2.27.so").
+     *
+     * @param path The path to the C library
+     * @return The version string (e.g., "2.27") or null if it's not in the file name
+     */
+    static public String parseFileVersion(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        java.util.regex.Matcher matcher = GLIBC_FILE_VERSION_PATTERN.matcher(path.substring(path.lastIndexOf('/') + 1));
+        if (matcher.matches()) {
+            return matcher.group(1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Parses the version of glibc from the contents of its .so file, which embeds the same banner it prints when
+     * executed (e.g., "GNU C Library (Ubuntu GLIBC 2.39-0ubuntu8.6) stable release version 2.39.").
+     *
+     * @param content The contents of the C library .so file
+     * @return The version string (e.g., "2.39") or null if no banner was found
+     */
+    static public String parseBinaryVersion(String content) {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+
+        java.util.regex.Matcher matcher = GLIBC_BANNER_VERSION_PATTERN.matcher(content);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+
+        return null;
+    }
+
     static final Pattern GLIBC_VERSION_PATTERN = java.util.regex.Pattern.compile("(\\d+\\.\\d+)");
     static final Pattern MUSL_VERSION_PATTERN = java.util.regex.Pattern.compile("(\\d+\\.\\d+\\.\\d+)");
 
@@ -0,0 +1,307 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the /proc/self/mountinfo file on linux, so we can figure out which filesystem a directory lives on and
+ * whether it's mounted with flags (e.g. noexec) that would prevent extracted executables or libraries from working.
+ *
+ * 36 35 98:0 /mnt1 /mnt2 rw,noatime master:1 - ext3 /dev/root rw,errors=continue
+ * (1)(2)(3)   (4)   (5)      (6)      (7)   (8) (9)   (10)         (11)
+ *
+ * https://man7.org/linux/man-pages/man5/proc_pid_mountinfo.5.html
+ */
+public class LinuxMountInfo {
+    static private final Logger log = LoggerFactory.getLogger(LinuxMountInfo.class);
+
+    private final List<Entry> entries;
+
+    public LinuxMountInfo(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Finds the mount that the path lives on. If the same mount point was mounted more than once, the last one wins
+     * since that is the one visible to this process.
+     *
+     * @param path the absolute path to search for (it's best if it's already a "real" path w/o symlinks)
+     * @return the mount entry or null if none was found
+     */
+    public Entry findEntry(Path path) {
+        if (path == null) {
+            return null;
+        }
+
+        final String p = path.toAbsolutePath().normalize().toString();
+
+        Entry best = null;
+        for (Entry entry : this.entries) {
+            final String mp = entry.getMountPoint();
+            final boolean matches = p.equals(mp)
+                || mp.equals("/")
+                || (p.startsWith(mp) && p.charAt(mp.length()) == '/');
+            if (matches && (best == null || mp.length() >= best.getMountPoint().length())) {
+                best = entry;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Whether files on the path can be executed (or mmap'ed as executable by the dynamic loader). If the mount of
+     * the path cannot be determined, we assume it is executable.
+     *
+     * @param path the path (does not need to exist yet)
+     * @return true if executable or unknown, false if its mount has the "noexec" flag
+     */
+    public boolean isExecutable(Path path) {
+        final Entry entry = this.findEntry(realpathOfNearestExisting(path));
+        return entry == null || !entry.isNoExec();
+    }
+
+    /**
+     * Whether the path lives on a memory-backed filesystem (e.g. tmpfs or ramfs), where writing files costs no disk
+     * bandwidth or fsync pressure.
+     *
+     * @param path the path (does not need to exist yet)
+     * @return true if memory-backed, false if not or unknown
+     */
+    public boolean isMemoryBacked(Path path) {
+        final Entry entry = this.findEntry(realpathOfNearestExisting(path));
+        return entry != null && entry.isMemoryBacked();
+    }
+
+    static public LinuxMountInfo detect() {
+        return detect(SystemExecutor.LOCAL);
+    }
+
+    static public LinuxMountInfo detect(SystemExecutor systemExecutor) {
+        try {
+            String output = systemExecutor.catFile("/proc/self/mountinfo");
+            return parse(output);
+        } catch (Exception e) {
+            // do nothing, ignore, but we should log this
+            log.debug("Unable to parse /proc/self/mountinfo file: {}", e.getMessage());
+        }
+
+        return null;
+    }
+
+    static public LinuxMountInfo parse(Path file) throws IOException {
+        String content = Utils.readFileToString(file);
+        return parse(content);
+    }
+
+    static public LinuxMountInfo parse(String content) {
+        final List<Entry> entries = new ArrayList<>();
+
+        for (String line : content.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            final String[] parts = line.split(" ");
+
+            // there are a variable number of optional fields, terminated by a single hyphen
+            int separatorIndex = -1;
+            for (int i = 6; i < parts.length; i++) {
+                if (parts[i].equals("-")) {
+                    separatorIndex = i;
+                    break;
+                }
+            }
+
+            if (separatorIndex < 0 || parts.length < separatorIndex + 3) {
+                log.trace("Skipping invalid mountinfo line: {}", line);
+                continue;
+            }
+
+            final Entry entry = new Entry();
+            entry.setRoot(unescape(parts[3]));
+            entry.setMountPoint(unescape(parts[4]));
+            entry.setMountOptions(new HashSet<>(Arrays.asList(parts[5].split(","))));
+            entry.setFilesystemType(parts[separatorIndex + 1]);
+            entry.setSource(unescape(parts[separatorIndex + 2]));
+            if (parts.length > separatorIndex + 3) {
+                entry.setSuperOptions(new HashSet<>(Arrays.asList(parts[separatorIndex + 3].split(","))));
+            } else {
+                entry.setSuperOptions(Collections.emptySet());
+            }
+            entries.add(entry);
+        }
+
+        return new LinuxMountInfo(entries);
+    }
+
+    /**
+     * The kernel escapes space, tab, newline, and backslash in paths as octal (e.g. \040 for a space).
+     */
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 3 < value.length() && isOctal(value, i + 1)) {
+                sb.append((char)Integer.parseInt(value.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static private boolean isOctal(String value, int from) {
+        for (int i = from; i < from + 3; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '7') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A directory we may extract to likely does not exist yet, so we resolve the nearest parent that does exist,
+     * so that symlinks (e.g. /tmp -> /private/tmp) are followed before matching against mount points.
+     */
+    static Path realpathOfNearestExisting(Path path) {
+        Path p = path.toAbsolutePath().normalize();
+        Path suffix = null;
+        while (p != null) {
+            if (Files.exists(p)) {
+                try {
+                    final Path real = p.toRealPath();
+                    return suffix != null ? real.resolve(suffix) : real;
+                } catch (IOException e) {
+                    break;
+                }
+            }
+            final Path name = p.getFileName();
+            if (name != null) {
+                suffix = suffix != null ? name.resolve(suffix) : name;
+            }
+            p = p.getParent();
+        }
+        return path.toAbsolutePath().normalize();
+    }
+
+    static public class Entry {
+
+        // 36 35 98:0 /mnt1 /mnt2 rw,noatime master:1 - ext3 /dev/root rw,errors=continue
+        private String root;
+        private String mountPoint;
+        private Set<String> mountOptions;
+        private String filesystemType;
+        private String source;
+        private Set<String> superOptions;
+
+        public String getRoot() {
+            return root;
+        }
+
+        public Entry setRoot(String root) {
+            this.root = root;
+            return this;
+        }
+
+        public String getMountPoint() {
+            return mountPoint;
+        }
+
+        public Entry setMountPoint(String mountPoint) {
+            this.mountPoint = mountPoint;
+            return this;
+        }
+
+        public Set<String> getMountOptions() {
+            return mountOptions;
+        }
+
+        public Entry setMountOptions(Set<String> mountOptions) {
+            this.mountOptions = mountOptions;
+            return this;
+        }
+
+        public String getFilesystemType() {
+            return filesystemType;
+        }
+
+        public Entry setFilesystemType(String filesystemType) {
+            this.filesystemType = filesystemType;
+            return this;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public Entry setSource(String source) {
+            this.source = source;
+            return this;
+        }
+
+        public Set<String> getSuperOptions() {
+            return superOptions;
+        }
+
+        public Entry setSuperOptions(Set<String> superOptions) {
+            this.superOptions = superOptions;
+            return this;
+        }
+
+        public boolean isNoExec() {
+            return this.mountOptions != null && this.mountOptions.contains("noexec");
+        }
+
+        public boolean isMemoryBacked() {
+            return "tmpfs".equals(this.filesystemType) || "ramfs".equals(this.filesystemType);
+        }
+
+        public boolean isReadOnly() {
+            return this.mountOptions != null && this.mountOptions.contains("ro");
+        }
+
+    }
+
+}
@@ -0,0 +1,254 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.jne.LibC;
+import com.fizzed.jne.SemanticVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Detects what 'uname -a' and 'ldd /bin/ls' (and executing libc) would on linux, but purely by reading files in /proc
+ * (and the read-only data of libc itself), so no process is spawned (except 'uname -m' on kernels without
+ * /proc/sys/kernel/arch). For services where fork/exec is expensive or forbidden (e.g. by a seccomp profile).
+ *
+ * /proc/sys/kernel/ostype      Linux
+ * /proc/sys/kernel/hostname    bmh-build-x64-ubuntu24-1
+ * /proc/sys/kernel/osrelease   6.8.0-87-generic
+ * /proc/sys/kernel/version     #88-Ubuntu SMP PREEMPT_DYNAMIC Sat Oct 11 09:28:41 UTC 2025
+ * /proc/sys/kernel/arch        x86_64 (only on newer kernels)
+ *
+ * https://docs.kernel.org/admin-guide/sysctl/kernel.html
+ */
+public class LinuxProc {
+    static private final Logger log = LoggerFactory.getLogger(LinuxProc.class);
+
+    /**
+     * Reads the equivalent of 'uname -a' from /proc/sys/kernel. The ostype is read first (it fails fast if this isn't
+     * linux), then the rest concurrently on the executor. Only kernels without /proc/sys/kernel/arch need 'uname -m'.
+     *
+     * @param systemExecutor the system to read the files from
+     * @param executor the executor to read the files on
+     * @return the equivalent of 'uname -a' (e.g. "Linux host 6.8.0-87-generic #88-Ubuntu SMP ... x86_64 GNU/Linux", or
+     *      "... x86_64 Linux" on musl, as busybox reports it)
+     * @throws Exception if the system isn't linux or the files could not be read
+     */
+    static public String readUname(SystemExecutor systemExecutor, Executor executor) throws Exception {
+        final String ostype = systemExecutor.catFile("/proc/sys/kernel/ostype").trim();
+        if (!"Linux".equals(ostype)) {
+            throw new IllegalStateException("Not linux (ostype was " + ostype + ")");
+        }
+
+        final CompletableFuture<String> hostname = readAsync(systemExecutor, executor, "/proc/sys/kernel/hostname");
+        final CompletableFuture<String> osrelease = readAsync(systemExecutor, executor, "/proc/sys/kernel/osrelease");
+        final CompletableFuture<String> version = readAsync(systemExecutor, executor, "/proc/sys/kernel/version");
+        final CompletableFuture<String> arch = readAsync(systemExecutor, executor, "/proc/sys/kernel/arch");
+        final CompletableFuture<String> maps = readAsync(systemExecutor, executor, "/proc/self/maps");
+
+        String machine;
+        try {
+            machine = arch.join();
+        } catch (CompletionException e) {
+            // older kernels lack it, so ask the kernel (the loader mapped into this process may be of another arch,
+            // e.g. a 32-bit armhf jvm on an aarch64 kernel)
+            log.debug("Unable to read /proc/sys/kernel/arch (will execute 'uname -m'): {}", e.getCause().getMessage());
+            machine = systemExecutor.execProcess("uname", "-m").trim();
+        }
+
+        String operatingSystem;
+        try {
+            operatingSystem = parseOperatingSystem(maps.join());
+        } catch (CompletionException e) {
+            log.debug("Unable to read /proc/self/maps (will omit operating system): {}", e.getCause().getMessage());
+            operatingSystem = null;
+        }
+
+        try {
+            // the same fields as 'uname -a' (coreutils omits the processor and hardware platform when unknown)
+            return ostype + " " + hostname.join() + " " + osrelease.join() + " " + version.join() + " " + machine
+                + (operatingSystem != null ? " " + operatingSystem : "");
+        } catch (CompletionException e) {
+            throw (Exception)e.getCause();
+        }
+    }
+
+    /**
+     * Detects the C library mapped into a process (via /proc/self/maps), and its version from the file name or
+     * read-only data of glibc (not the whole library, which is ~2MB), or from the package database of alpine for musl.
+     *
+     * @param systemExecutor the system to read the files from
+     * @return the libc and its version (which is null if it couldn't be read) or null if no libc was mapped
+     * @throws Exception if /proc/self/maps could not be read
+     */
+    static public LibCResult readLibC(SystemExecutor systemExecutor) throws Exception {
+        final String maps = systemExecutor.catFile("/proc/self/maps");
+        final LibCs.PathResult pathResult = LibCs.parseMapsPath(maps);
+        if (pathResult == null) {
+            return null;
+        }
+
+        String versionString = null;
+        if (pathResult.getLibC() == LibC.GLIBC) {
+            versionString = LibCs.parseFileVersion(pathResult.getPath());
+            if (versionString == null) {
+                // the banner is in its read-only data (otherwise read as much from the start)
+                long[] window = parseReadOnlyDataWindow(maps, pathResult.getPath());
+                if (window == null) {
+                    window = new long[] { 0L, MAX_READ_ONLY_DATA_LENGTH };
+                }
+                try {
+                    versionString = LibCs.parseBinaryVersion(systemExecutor.catFile(pathResult.getPath(), window[0], (int)window[1]));
+                } catch (Exception e) {
+                    log.debug("Unable to read {} to detect libc version: {}", pathResult.getPath(), e.getMessage());
+                }
+            }
+        } else if (pathResult.getLibC() == LibC.MUSL) {
+            try {
+                versionString = parseApkVersion(systemExecutor.catFile("/lib/apk/db/installed"), "musl");
+            } catch (Exception e) {
+                log.debug("Unable to read /lib/apk/db/installed to detect musl version: {}", e.getMessage());
+            }
+        }
+
+        SemanticVersion version = null;
+        if (versionString != null) {
+            try {
+                version = SemanticVersion.parse(versionString);
+            } catch (Exception e) {
+                log.warn("Unable to parse libc version {}: {}", versionString, e.getMessage());
+            }
+        }
+
+        return new LibCResult(pathResult.getLibC(), version);
+    }
+
+    /**
+     * Parses the operating system (as 'uname -o' would report it) from the C library mapped in /proc/self/maps, which
+     * is "GNU/Linux" from coreutils on glibc, but just "Linux" from busybox on musl.
+     *
+     * @param content the full contents of /proc/self/maps
+     * @return the operating system (e.g. "GNU/Linux") or null if it couldn't be detected
+     */
+    static public String parseOperatingSystem(String content) {
+        final LibCs.PathResult pathResult = LibCs.parseMapsPath(content);
+        if (pathResult == null) {
+            return null;
+        }
+
+        switch (pathResult.getLibC()) {
+            case GLIBC:
+                return "GNU/Linux";
+            case MUSL:
+                return "Linux";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses the window of a library's file that is mapped as its read-only data, which is its first read-only mapping
+     * after its executable one in /proc/self/maps, and is at most 4MB. For example, it's 0x1b0000 for 0x4f000 bytes of
+     *
+     * 7b1f2cc28000-7b1f2cdb0000 r-xp 00028000 fc:00 1054790    /usr/lib/x86_64-linux-gnu/libc.so.6
+     * 7b1f2cdb0000-7b1f2cdff000 r--p 001b0000 fc:00 1054790    /usr/lib/x86_64-linux-gnu/libc.so.6
+     *
+     * @param content the full contents of /proc/self/maps
+     * @param path the path of the mapped library
+     * @return the offset and length of the window or null if it isn't mapped
+     */
+    static public long[] parseReadOnlyDataWindow(String content, String path) {
+        if (content == null || content.isEmpty() || path == null) {
+            return null;
+        }
+
+        boolean afterExecutable = false;
+        for (String line : content.split("\n")) {
+            // address perms offset dev inode pathname
+            final String[] fields = line.trim().split("\\s+", 6);
+            if (fields.length < 6 || !fields[5].trim().equals(path)) {
+                continue;
+            }
+
+            if (fields[1].startsWith("r-x")) {
+                afterExecutable = true;
+            } else if (afterExecutable && fields[1].startsWith("r--")) {
+                try {
+                    final int dashPos = fields[0].indexOf('-');
+                    final long start = Long.parseUnsignedLong(fields[0].substring(0, dashPos), 16);
+                    final long end = Long.parseUnsignedLong(fields[0].substring(dashPos + 1), 16);
+                    final long offset = Long.parseUnsignedLong(fields[2], 16);
+                    return new long[] { offset, Math.min(end - start, MAX_READ_ONLY_DATA_LENGTH) };
+                } catch (RuntimeException e) {
+                    return null;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    static private final long MAX_READ_ONLY_DATA_LENGTH = 4L * 1024L * 1024L;
+
+    /**
+     * Parses the version of a package from the alpine package database (/lib/apk/db/installed), which has a record
+     * per package with lines like "P:musl" and "V:1.2.2-r7".
+     *
+     * @param content the contents of the package database
+     * @param packageName the name of the package (e.g. "musl")
+     * @return the version without its package release (e.g. "1.2.2") or null if the package isn't installed
+     */
+    static public String parseApkVersion(String content, String packageName) {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+
+        boolean inPackage = false;
+        for (String line : content.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                inPackage = false;
+            } else if (line.startsWith("P:")) {
+                inPackage = line.substring(2).equals(packageName);
+            } else if (inPackage && line.startsWith("V:")) {
+                final String version = line.substring(2);
+                final int releasePos = version.indexOf("-r");
+                return releasePos > 0 ? version.substring(0, releasePos) : version;
+            }
+        }
+
+        return null;
+    }
+
+    static private CompletableFuture<String> readAsync(SystemExecutor systemExecutor, Executor executor, String file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return systemExecutor.catFile(file).trim();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+}
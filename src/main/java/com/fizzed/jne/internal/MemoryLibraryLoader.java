@@ -0,0 +1,50 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Loads a library straight from memory, without ever extracting it to disk. On linux w/ java 22+, the multi-release
+ * jar replaces this class with one that uses the FFM api to create an anonymous memfd_create() file and then loads
+ * the library via /proc/self/fd/N. On older JVMs, this is not supported and callers should fallback to extracting.
+ */
+public class MemoryLibraryLoader {
+
+    static public boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Loads the library resource from memory.
+     *
+     * @param url the resource of the library
+     * @param name the name of the library (e.g. libhelloj.so), which is visible in /proc/self/maps
+     * @return the path the library was loaded from
+     * @throws IOException if the library could not be streamed into memory
+     * @throws UnsatisfiedLinkError if the library could not be loaded (or loading from memory isn't supported)
+     */
+    static public String load(URL url, String name) throws IOException {
+        throw new UnsatisfiedLinkError("Loading libraries from memory requires linux and java 22+");
+    }
+
+}
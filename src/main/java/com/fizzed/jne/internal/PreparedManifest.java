@@ -0,0 +1,109 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The manifest of a directory of natives prepared ahead-of-time (e.g. while building a container image), which maps
+ * the type and name of each native (e.g. "library.helloj") to its file, relative to the directory. At runtime, it's
+ * trusted completely, so finding a native is a single map lookup.
+ */
+public class PreparedManifest {
+
+    static public final String FILE_NAME = "jne-prepared.properties";
+    static public final String TARGET_KEY = "jne.target";
+
+    private final File dir;
+    private final String target;
+    private final Map<String, File> files;
+
+    public PreparedManifest(File dir, String target) {
+        this.dir = dir;
+        this.target = target;
+        this.files = new TreeMap<>();
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public Map<String, File> getFiles() {
+        return files;
+    }
+
+    /**
+     * @param type e.g. "library", "executable", or "file"
+     * @param name the name as passed to JNE (e.g. "helloj" rather than "libhelloj.so")
+     * @return the prepared file or null if it wasn't prepared
+     */
+    public File find(String type, String name) {
+        return this.files.get(type + "." + name);
+    }
+
+    public PreparedManifest put(String type, String name, File file) {
+        this.files.put(type + "." + name, file);
+        return this;
+    }
+
+    static public PreparedManifest load(File dir) throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(new File(dir, FILE_NAME).toPath())) {
+            properties.load(in);
+        }
+
+        final PreparedManifest manifest = new PreparedManifest(dir, properties.getProperty(TARGET_KEY));
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.equals(TARGET_KEY)) {
+                manifest.files.put(key, new File(dir, properties.getProperty(key)));
+            }
+        }
+        return manifest;
+    }
+
+    public void store() throws IOException {
+        final Properties properties = new Properties();
+        if (this.target != null) {
+            properties.setProperty(TARGET_KEY, this.target);
+        }
+        for (Map.Entry<String, File> entry : this.files.entrySet()) {
+            // relative, so the dir can be moved (e.g. copied into an image)
+            final String relativePath = this.dir.toPath().toAbsolutePath().relativize(entry.getValue().toPath().toAbsolutePath()).toString();
+            properties.setProperty(entry.getKey(), relativePath.replace('\\', '/'));
+        }
+
+        try (OutputStream out = Files.newOutputStream(new File(this.dir, FILE_NAME).toPath())) {
+            properties.store(out, "Natives prepared by JNE (com.fizzed.jne.PrepareMain)");
+        }
+    }
+
+}
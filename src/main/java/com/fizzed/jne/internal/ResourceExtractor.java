@@ -0,0 +1,347 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Extracts resources (usually from a jar) to a file as efficiently as possible. Entries stored uncompressed in a jar
+ * on the local filesystem are copied straight from the jar's file channel (where the os supports it, without the
+ * bytes ever entering the jvm), using an index of the jar's central directory that is only read once per jar.
+ * Compressed entries are inflated through a large buffer that is reused across extractions.
+ */
+public class ResourceExtractor {
+    static private final Logger log = LoggerFactory.getLogger(ResourceExtractor.class);
+
+    static private final int BUFFER_SIZE = 256 * 1024;
+    // a single slot cache, so repeated extractions don't each allocate a new large buffer (and if another thread
+    // already has it, we simply allocate our own)
+    static private final AtomicReference<byte[]> BUFFER_CACHE = new AtomicReference<>();
+
+    static private final int EOCD_SIGNATURE = 0x06054b50;
+    static private final int CEN_SIGNATURE = 0x02014b50;
+    static private final int LOC_SIGNATURE = 0x04034b50;
+    static private final int EOCD_SIZE = 22;
+    static private final int CEN_SIZE = 46;
+    static private final int LOC_SIZE = 30;
+
+    // the local header offsets of the stored entries in each jar, keyed by the jar's path (and replaced if the jar
+    // changes), so its central directory is only read once, rather than on every extraction. only the most recently
+    // used jars are kept, so apps that redeploy (to new paths) don't keep every jar they've ever seen
+    static private final int MAX_JAR_INDEXES = 32;
+    static final Map<String, JarIndex> JAR_INDEXES = Collections.synchronizedMap(new LinkedHashMap<String, JarIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JarIndex> eldest) {
+            return this.size() > MAX_JAR_INDEXES;
+        }
+    });
+
+    static class JarIndex {
+        final long lastModified;
+        final long length;
+        final Map<String, Long> storedLocOffsets;        // null if the jar isn't supported
+
+        JarIndex(long lastModified, long length, Map<String, Long> storedLocOffsets) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.storedLocOffsets = storedLocOffsets;
+        }
+    }
+
+    public enum Method {
+        TRANSFER,
+        STREAM
+    }
+
+    /**
+     * Extracts the resource to the file, replacing it if it already exists.
+     *
+     * @param url the resource to extract
+     * @param file the file to extract to
+     * @return the method that was used
+     * @throws IOException if the resource could not be extracted
+     */
+    static public Method extract(URL url, File file) throws IOException {
+        if (!"jar".equals(url.getProtocol())) {
+            try (InputStream in = url.openStream()) {
+                copy(in, file, -1);
+            }
+            return Method.STREAM;
+        }
+
+        final JarURLConnection connection = (JarURLConnection)url.openConnection();
+        final JarEntry jarEntry = connection.getJarEntry();
+        final long size = jarEntry.getSize();
+
+        if (jarEntry.getMethod() == ZipEntry.STORED && size >= 0) {
+            final File jarFile = getLocalJarFile(url);
+            if (jarFile != null) {
+                final long offset = findEntryDataOffset(jarFile, jarEntry.getName());
+                if (offset >= 0) {
+                    transfer(jarFile, offset, size, file);
+                    return Method.TRANSFER;
+                }
+            }
+        }
+
+        try (InputStream in = connection.getInputStream()) {
+            copy(in, file, size);
+        }
+        return Method.STREAM;
+    }
+
+    /**
+     * Whether the file has exactly the same content as the jar resource, using the size and CRC32 the jar already
+     * records for the entry (so only the file needs to be read).
+     *
+     * @param url the jar resource
+     * @param file the file to compare against
+     * @return true if the same, false if different, unknown, or not a jar resource
+     */
+    static public boolean isSameContent(URL url, File file) throws IOException {
+        if (!"jar".equals(url.getProtocol()) || !file.isFile()) {
+            return false;
+        }
+
+        final JarEntry jarEntry = ((JarURLConnection)url.openConnection()).getJarEntry();
+        if (jarEntry.getSize() < 0 || jarEntry.getCrc() < 0 || jarEntry.getSize() != file.length()) {
+            return false;
+        }
+
+        byte[] buffer = BUFFER_CACHE.getAndSet(null);
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            final CRC32 crc = new CRC32();
+            int len;
+            while ((len = in.read(buffer)) > -1) {
+                crc.update(buffer, 0, len);
+            }
+            return crc.getValue() == jarEntry.getCrc();
+        } finally {
+            BUFFER_CACHE.set(buffer);
+        }
+    }
+
+    /**
+     * Copies the region of the source file (e.g. the data of a stored jar entry) to the file.
+     */
+    static public void transfer(File source, long offset, long size, File file) throws IOException {
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+             RandomAccessFile out = openTruncated(file)) {
+            final FileChannel outChannel = out.getChannel();
+            long position = 0;
+            while (position < size) {
+                final long n = in.transferTo(offset + position, size - position, outChannel);
+                if (n <= 0) {
+                    throw new EOFException("Unexpected end of " + source + " after " + position + " of " + size + " bytes");
+                }
+                position += n;
+            }
+        }
+    }
+
+    /**
+     * Copies the input stream to the file through a large reusable buffer.
+     *
+     * @param size the expected number of bytes or -1 if unknown
+     */
+    static public void copy(InputStream in, File file, long size) throws IOException {
+        byte[] buffer = BUFFER_CACHE.getAndSet(null);
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        try (RandomAccessFile out = openTruncated(file)) {
+            final FileChannel outChannel = out.getChannel();
+            long position = 0;
+            int len;
+            while ((len = in.read(buffer)) > -1) {
+                final ByteBuffer bb = ByteBuffer.wrap(buffer, 0, len);
+                while (bb.hasRemaining()) {
+                    outChannel.write(bb);
+                }
+                position += len;
+            }
+            if (size >= 0 && position != size) {
+                throw new EOFException("Expected " + size + " bytes but only read " + position + " bytes");
+            }
+        } finally {
+            BUFFER_CACHE.set(buffer);
+        }
+    }
+
+    /**
+     * Opens the file for writing, truncating it if it already existed.
+     */
+    static private RandomAccessFile openTruncated(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+        return raf;
+    }
+
+    /**
+     * The jar file on the local filesystem the resource lives in, or null if its somewhere else (e.g. a jar nested
+     * in another jar) where we can't read the entry data directly.
+     */
+    static File getLocalJarFile(URL url) {
+        // e.g. file:/home/joe/.m2/repository/com/fizzed/jne/1.0.0/jne-1.0.0.jar!/jne/linux/x64/libhelloj.so
+        final String file = url.getFile();
+        final int pos = file.indexOf("!/");
+        if (!file.startsWith("file:") || pos < 0 || file.indexOf("!/", pos + 2) >= 0) {
+            return null;
+        }
+        try {
+            final File jarFile = new File(new URL(file.substring(0, pos)).toURI());
+            return jarFile.isFile() ? jarFile : null;
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the offset of where the data for the named stored (uncompressed) entry begins in the jar. The JarEntry api
+     * does not expose it, so we read the central directory ourselves (once per jar, see JAR_INDEXES). Anything unusual
+     * (e.g. zip64 or a jar with a prepended launcher script) is simply not supported and returns -1.
+     *
+     * @return the offset or -1 if the stored entry was not found or the jar isn't supported
+     */
+    static long findEntryDataOffset(File jarFile, String name) throws IOException {
+        final String key = jarFile.getAbsolutePath();
+        final long lastModified = jarFile.lastModified();
+        final long length = jarFile.length();
+
+        JarIndex index = JAR_INDEXES.get(key);
+        if (index == null || index.lastModified != lastModified || index.length != length) {
+            index = new JarIndex(lastModified, length, readStoredLocOffsets(jarFile));
+            JAR_INDEXES.put(key, index);
+        }
+
+        final Long locOffset = index.storedLocOffsets != null ? index.storedLocOffsets.get(name) : null;
+        if (locOffset == null) {
+            return -1;
+        }
+
+        try (FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer loc = readFully(channel, locOffset, LOC_SIZE);
+            if (loc.getInt(0) != LOC_SIGNATURE) {
+                return -1;
+            }
+            // the local header has its own name & extra lengths (they can differ from the central directory)
+            return locOffset + LOC_SIZE + (loc.getShort(26) & 0xFFFF) + (loc.getShort(28) & 0xFFFF);
+        }
+    }
+
+    /**
+     * Reads the local header offsets of every stored entry from the central directory of the jar.
+     *
+     * @return the offsets by entry name or null if the jar isn't supported
+     */
+    static private Map<String, Long> readStoredLocOffsets(File jarFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+
+            // the end of central directory record is at the end of the file, followed by an optional comment
+            final int tailSize = (int)Math.min(fileSize, EOCD_SIZE + 0xFFFF);
+            final ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+            int eocd = -1;
+            for (int i = tailSize - EOCD_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == EOCD_SIGNATURE) {
+                    eocd = i;
+                    break;
+                }
+            }
+            if (eocd < 0) {
+                return null;
+            }
+
+            final long cenSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+            final long cenOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+            if (cenOffset + cenSize != fileSize - tailSize + eocd || cenSize > Integer.MAX_VALUE) {
+                log.trace("Unsupported central directory in {} (e.g. zip64 or prefixed)", jarFile);
+                return null;
+            }
+
+            final ByteBuffer cen = readFully(channel, cenOffset, (int)cenSize);
+            final Map<String, Long> storedLocOffsets = new HashMap<>();
+            int p = 0;
+            while (p + CEN_SIZE <= cenSize) {
+                if (cen.getInt(p) != CEN_SIGNATURE) {
+                    return null;
+                }
+                final int method = cen.getShort(p + 10) & 0xFFFF;
+                final int nameLength = cen.getShort(p + 28) & 0xFFFF;
+                final int extraLength = cen.getShort(p + 30) & 0xFFFF;
+                final int commentLength = cen.getShort(p + 32) & 0xFFFF;
+                if (method == ZipEntry.STORED) {
+                    final byte[] nameBytes = new byte[nameLength];
+                    for (int i = 0; i < nameLength; i++) {
+                        nameBytes[i] = cen.get(p + CEN_SIZE + i);
+                    }
+                    storedLocOffsets.put(new String(nameBytes, StandardCharsets.UTF_8), cen.getInt(p + 42) & 0xFFFFFFFFL);
+                }
+                p += CEN_SIZE + nameLength + extraLength + commentLength;
+            }
+            return storedLocOffsets;
+        }
+    }
+
+    static private ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+}
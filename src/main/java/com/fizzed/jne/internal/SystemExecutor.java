@@ -19,6 +19,31 @@ public interface SystemExecutor {
 
     String catFile(String file) throws Exception;
 
+    /**
+     * Reads a window of a (possibly large, binary) file, such as the read-only data of a library. Executors that can't
+     * seek (e.g. ones where reading files isn't cheap) return the whole file.
+     *
+     * @param file the file to read
+     * @param offset the offset to start reading at
+     * @param length the max number of bytes to read
+     * @return at least the window of the file (each byte as a latin-1 char if only the window)
+     * @throws Exception if the file could not be read
+     */
+    default String catFile(String file, long offset, int length) throws Exception {
+        return catFile(file);
+    }
+
+    /**
+     * Whether reading a file is cheaper than executing a process, so probes may read many files (e.g. /proc and the
+     * read-only data of libc) rather than execute one process (e.g. 'uname -a'). It isn't over ssh or in a container,
+     * where every read is a process of its own.
+     *
+     * @return true if reading files is cheap
+     */
+    default boolean isFileReadCheap() {
+        return true;
+    }
+
     default String execProcess(String... command) throws Exception {
         return execProcess(Collections.singletonList(0), command);
     }
@@ -61,6 +61,11 @@ public class SystemExecutorFixture implements SystemExecutor {
         }
     }
 
+    @Override
+    public boolean isFileReadCheap() {
+        return this.underlyingExecutor == null || this.underlyingExecutor.isFileReadCheap();
+    }
+
     @Override
     public String catFile(String file) throws Exception {
         String name = createName("cat", file);
@@ -7,9 +7,12 @@ import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +26,18 @@ public class SystemExecutorLocal implements SystemExecutor {
         return new String(bytes, StandardCharsets.UTF_8);
     }
 
+    @Override
+    public String catFile(String file, long offset, int length) throws Exception {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int)Math.max(0L, Math.min(length, channel.size() - offset)));
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                // keep reading
+            }
+            // latin-1 maps each byte to a char, so binary content survives intact
+            return new String(buffer.array(), 0, buffer.position(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
     @Override
     public String execProcess(List<Integer> exitValues, String... command) throws Exception {
         final ProcessBuilder pb = new ProcessBuilder(command);
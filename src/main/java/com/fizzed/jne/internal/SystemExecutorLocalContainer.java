@@ -20,6 +20,17 @@ public class SystemExecutorLocalContainer extends SystemExecutorLocal {
         return this.execProcess("cat", file);
     }
 
+    @Override
+    public boolean isFileReadCheap() {
+        return false;
+    }
+
+    @Override
+    public String catFile(String file, long offset, int length) throws Exception {
+        // the file is in the container, so it's read whole
+        return this.catFile(file);
+    }
+
     @Override
     public String execProcess(List<Integer> exitValues, String... command) throws Exception {
         // build a new array of commands
@@ -0,0 +1,258 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.File;
+import java.net.URL;
+
+/**
+ * Emits Java Flight Recorder events for finding, extracting and loading natives, and for detecting the platform and
+ * java homes. Events are only allocated (and timed) while a recording has them enabled, so they're near zero overhead
+ * otherwise.
+ */
+public class JneEvents {
+
+    // checked before allocating an event, so nothing is allocated unless recording (null is the shared no-op event)
+    static private final EventType LOOKUP;
+    static private final EventType EXTRACT;
+    static private final EventType LOAD_LIBRARY;
+    static private final EventType PLATFORM_PROBE;
+    static private final EventType PLATFORM_DETECT;
+    static private final EventType JAVA_HOMES_DETECT;
+
+    static {
+        EventType lookup = null, extract = null, loadLibrary = null, platformProbe = null, platformDetect = null, javaHomesDetect = null;
+        try {
+            lookup = EventType.getEventType(LookupEvent.class);
+            extract = EventType.getEventType(ExtractEvent.class);
+            loadLibrary = EventType.getEventType(LoadLibraryEvent.class);
+            platformProbe = EventType.getEventType(PlatformProbeEvent.class);
+            platformDetect = EventType.getEventType(PlatformDetectEvent.class);
+            javaHomesDetect = EventType.getEventType(JavaHomesDetectEvent.class);
+        } catch (Throwable t) {
+            // e.g. a runtime image without the jdk.jfr module, so every event is a no-op
+            lookup = extract = loadLibrary = platformProbe = platformDetect = javaHomesDetect = null;
+        }
+        LOOKUP = lookup;
+        EXTRACT = extract;
+        LOAD_LIBRARY = loadLibrary;
+        PLATFORM_PROBE = platformProbe;
+        PLATFORM_DETECT = platformDetect;
+        JAVA_HOMES_DETECT = javaHomesDetect;
+    }
+
+    static public boolean isSupported() {
+        return JAVA_HOMES_DETECT != null;
+    }
+
+    static public Object beginLookup() {
+        return isEnabled(LOOKUP) ? begin(new LookupEvent()) : null;
+    }
+
+    static public void endLookup(Object event, String type, String name, File file) {
+        if (event != null) {
+            final LookupEvent e = (LookupEvent)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.type = type;
+                e.name = name;
+                e.path = file != null ? file.getAbsolutePath() : null;
+                e.found = file != null;
+                e.commit();
+            }
+        }
+    }
+
+    static public Object beginExtract() {
+        return isEnabled(EXTRACT) ? begin(new ExtractEvent()) : null;
+    }
+
+    static public void endExtract(Object event, URL url, File file, long bytes) {
+        if (event != null) {
+            final ExtractEvent e = (ExtractEvent)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.resource = url != null ? url.toString() : null;
+                e.path = file != null ? file.getAbsolutePath() : null;
+                e.bytes = bytes;
+                e.commit();
+            }
+        }
+    }
+
+    static public Object beginLoadLibrary() {
+        return isEnabled(LOAD_LIBRARY) ? begin(new LoadLibraryEvent()) : null;
+    }
+
+    static public void endLoadLibrary(Object event, String name, String path, boolean success) {
+        if (event != null) {
+            final LoadLibraryEvent e = (LoadLibraryEvent)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.name = name;
+                e.path = path;
+                e.success = success;
+                e.commit();
+            }
+        }
+    }
+
+    static public Object beginPlatformProbe() {
+        return isEnabled(PLATFORM_PROBE) ? begin(new PlatformProbeEvent()) : null;
+    }
+
+    static public void endPlatformProbe(Object event, String probe, boolean success) {
+        if (event != null) {
+            final PlatformProbeEvent e = (PlatformProbeEvent)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.probe = probe;
+                e.success = success;
+                e.commit();
+            }
+        }
+    }
+
+    static public Object beginPlatformDetect() {
+        return isEnabled(PLATFORM_DETECT) ? begin(new PlatformDetectEvent()) : null;
+    }
+
+    static public void endPlatformDetect(Object event, String operatingSystem, String hardwareArchitecture, String displayName) {
+        if (event != null) {
+            final PlatformDetectEvent e = (PlatformDetectEvent)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.operatingSystem = operatingSystem;
+                e.hardwareArchitecture = hardwareArchitecture;
+                e.displayName = displayName;
+                e.commit();
+            }
+        }
+    }
+
+    static public Object beginJavaHomesDetect() {
+        return isEnabled(JAVA_HOMES_DETECT) ? begin(new JavaHomesDetectEvent()) : null;
+    }
+
+    static public void endJavaHomesDetect(Object event, int count) {
+        if (event != null) {
+            final JavaHomesDetectEvent e = (JavaHomesDetectEvent)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.count = count;
+                e.commit();
+            }
+        }
+    }
+
+    static private boolean isEnabled(EventType eventType) {
+        return eventType != null && eventType.isEnabled();
+    }
+
+    static private Object begin(Event event) {
+        event.begin();
+        return event;
+    }
+
+    @Name("com.fizzed.jne.Lookup")
+    @Label("Native Lookup")
+    @Description("Finding (and extracting if needed) a library, executable or file")
+    @Category({ "JNE" })
+    static class LookupEvent extends Event {
+        @Label("Type")
+        String type;
+        @Label("Name")
+        String name;
+        @Label("Path")
+        String path;
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("com.fizzed.jne.Extract")
+    @Label("Native Extract")
+    @Description("Extracting (or materializing) a resource to a file")
+    @Category({ "JNE" })
+    static class ExtractEvent extends Event {
+        @Label("Resource")
+        String resource;
+        @Label("Path")
+        String path;
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.fizzed.jne.LoadLibrary")
+    @Label("Native Library Load")
+    @Description("Loading a library via System.load (or from memory)")
+    @Category({ "JNE" })
+    static class LoadLibraryEvent extends Event {
+        @Label("Name")
+        String name;
+        @Label("Path")
+        String path;
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("com.fizzed.jne.PlatformProbe")
+    @Label("Platform Probe")
+    @Description("A single probe (e.g. uname or /etc/os-release) while detecting the platform")
+    @Category({ "JNE" })
+    static class PlatformProbeEvent extends Event {
+        @Label("Probe")
+        String probe;
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("com.fizzed.jne.PlatformDetect")
+    @Label("Platform Detect")
+    @Description("Detecting the platform (PlatformInfo.detect)")
+    @Category({ "JNE" })
+    static class PlatformDetectEvent extends Event {
+        @Label("Operating System")
+        String operatingSystem;
+        @Label("Hardware Architecture")
+        String hardwareArchitecture;
+        @Label("Display Name")
+        String displayName;
+    }
+
+    @Name("com.fizzed.jne.JavaHomesDetect")
+    @Label("Java Homes Detect")
+    @Description("Detecting the java homes installed on the host (JavaHomes.detect)")
+    @Category({ "JNE" })
+    static class JavaHomesDetectEvent extends Event {
+        @Label("Count")
+        int count;
+    }
+
+}
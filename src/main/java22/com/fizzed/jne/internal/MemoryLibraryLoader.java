@@ -0,0 +1,160 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.jne.OperatingSystem;
+import com.fizzed.jne.PlatformInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Java 22+ version that uses the FFM api to call memfd_create() on linux, stream the library resource into the
+ * anonymous file, and then System.load() it via /proc/self/fd/N. There is no disk I/O, no cleanup needed, and
+ * no temp dir permission issues. Once loaded, the library stays mapped, so the descriptor is closed.
+ */
+public class MemoryLibraryLoader {
+    static private final Logger log = LoggerFactory.getLogger(MemoryLibraryLoader.class);
+
+    static private final int MFD_CLOEXEC = 0x0001;
+    static private final int F_DUPFD_CLOEXEC = 1030;
+    static private final Set<Integer> LOADED_FDS = new HashSet<>();
+
+    static private final MethodHandle MEMFD_CREATE;
+    static private final MethodHandle CLOSE;
+    static private final MethodHandle FCNTL;
+
+    static {
+        MethodHandle memfdCreate = null;
+        MethodHandle close = null;
+        MethodHandle fcntl = null;
+        try {
+            if (PlatformInfo.detectOperatingSystem() == OperatingSystem.LINUX) {
+                final Linker linker = Linker.nativeLinker();
+                // int memfd_create(const char *name, unsigned int flags);
+                memfdCreate = linker.defaultLookup().find("memfd_create")
+                    .map(addr -> linker.downcallHandle(addr, FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)))
+                    .orElse(null);
+                // int close(int fd);
+                close = linker.defaultLookup().find("close")
+                    .map(addr -> linker.downcallHandle(addr, FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT)))
+                    .orElse(null);
+                // int fcntl(int fd, int cmd, ... /* int arg */);
+                fcntl = linker.defaultLookup().find("fcntl")
+                    .map(addr -> linker.downcallHandle(addr, FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT), Linker.Option.firstVariadicArg(2)))
+                    .orElse(null);
+            }
+        } catch (Throwable t) {
+            // e.g. native access was denied
+            log.debug("Unable to link memfd_create (will not be able to load libraries from memory): {}", t.getMessage());
+            memfdCreate = null;
+        }
+        MEMFD_CREATE = memfdCreate;
+        CLOSE = close;
+        FCNTL = fcntl;
+    }
+
+    static public boolean isSupported() {
+        return MEMFD_CREATE != null && CLOSE != null && FCNTL != null;
+    }
+
+    synchronized static public String load(URL url, String name) throws IOException {
+        if (!isSupported()) {
+            throw new UnsatisfiedLinkError("Loading libraries from memory requires linux and java 22+");
+        }
+
+        final int fd;
+        try (Arena arena = Arena.ofConfined()) {
+            fd = (int)MEMFD_CREATE.invokeExact(arena.allocateFrom(name), MFD_CLOEXEC);
+        } catch (Throwable t) {
+            throw new IOException("Unable to memfd_create for library " + name, t);
+        }
+
+        if (fd < 0) {
+            throw new IOException("Unable to memfd_create for library " + name + " (returned " + fd + ")");
+        }
+
+        int loadFd = fd;
+        try {
+            // stream the resource into the anonymous file
+            try (InputStream in = url.openStream(); OutputStream out = new FileOutputStream("/proc/self/fd/" + fd)) {
+                final byte[] buffer = new byte[65536];
+                int len;
+                while ((len = in.read(buffer)) > -1) {
+                    out.write(buffer, 0, len);
+                }
+            }
+
+            // the jvm remembers loaded libraries by their path, so if this fd number was used by a previous load, its
+            // /proc/self/fd/N would look like it was already loaded (and silently not be loaded), so use a new number
+            if (LOADED_FDS.contains(fd)) {
+                loadFd = dupAbove(fd, Collections.max(LOADED_FDS) + 1, name);
+            }
+
+            final String path = "/proc/self/fd/" + loadFd;
+            log.trace("System.load({}) for memfd library {}", path, name);
+            System.load(path);
+            LOADED_FDS.add(loadFd);
+            return path;
+        } finally {
+            // the library stays mapped after it's loaded, so the descriptor is no longer needed
+            if (loadFd != fd) {
+                close(loadFd);
+            }
+            close(fd);
+        }
+    }
+
+    static private int dupAbove(int fd, int minFd, String name) throws IOException {
+        final int newFd;
+        try {
+            newFd = (int)FCNTL.invokeExact(fd, F_DUPFD_CLOEXEC, minFd);
+        } catch (Throwable t) {
+            throw new IOException("Unable to dup memfd for library " + name, t);
+        }
+        if (newFd < 0) {
+            throw new IOException("Unable to dup memfd for library " + name + " (returned " + newFd + ")");
+        }
+        return newFd;
+    }
+
+    static private void close(int fd) {
+        try {
+            final int ignored = (int)CLOSE.invokeExact(fd);
+        } catch (Throwable t) {
+            log.debug("Unable to close memfd {}: {}", fd, t.getMessage());
+        }
+    }
+
+}
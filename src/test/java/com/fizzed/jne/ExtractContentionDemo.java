@@ -0,0 +1,363 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import helloj.HelloLib;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zeroturnaround.exec.ProcessExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Load test of many JVMs starting at once on one host, all extracting the same natives (libhelloj and jcat) into a
+ * shared jne.extract.dir. Each round launches N child JVMs, waits until every one of them is up, then releases them
+ * all at once to JNE.loadLibrary and findExecutable. It reports the latency of each process, how many extractions
+ * were done beyond the one needed per native (duplicates), and how many processes ended up with a corrupt native or
+ * failed outright.
+ *
+ * The natives are jarred up first (from target/test-classes), since resources that are plain files are used in place
+ * rather than extracted. Run it after "mvn test-compile" with the test classpath, e.g. from your IDE, with args of
+ * [processes] [rounds] [all], where "all" spreads the children across every JavaHome detected on this host (that
+ * matches its arch), rather than only the current one.
+ */
+public class ExtractContentionDemo {
+    static private final Logger log = LoggerFactory.getLogger(ExtractContentionDemo.class);
+
+    static private final String[] NATIVES = { "helloj", "jcat" };
+    static private final String RESULT_PREFIX = "RESULT ";
+    static private final long READY_TIMEOUT_MILLIS = 120000L;
+
+    static public void main(String[] args) throws Exception {
+        if (args.length > 0 && "child".equals(args[0])) {
+            System.exit(child(Paths.get(args[1]), Paths.get(args[2])));
+            return;
+        }
+
+        final int processes = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        final boolean allJavas = args.length > 2 && "all".equals(args[2]);
+
+        final List<JavaHome> javaHomes = resolveJavaHomes(allJavas);
+        for (JavaHome javaHome : javaHomes) {
+            log.info("Using java {} ({})", javaHome.getVersion(), javaHome.getDirectory());
+        }
+
+        final Path workDir = Paths.get("target", "extract-contention");
+        deleteRecursively(workDir);
+        Files.createDirectories(workDir);
+
+        final String classpath = buildChildClasspath(workDir);
+
+        final List<Result> allResults = new ArrayList<>();
+        for (int round = 1; round <= rounds; round++) {
+            final List<Result> results = round(workDir.resolve("round-" + round), classpath, javaHomes, processes);
+            log.info("Round {}/{}:", round, rounds);
+            summarize(results);
+            allResults.addAll(results);
+        }
+
+        if (rounds > 1) {
+            log.info("All {} rounds:", rounds);
+            summarize(allResults);
+        }
+    }
+
+    //
+    // parent
+    //
+
+    static private List<JavaHome> resolveJavaHomes(boolean allJavas) throws Exception {
+        final JavaHome current = JavaHome.current();
+        if (!allJavas) {
+            return Collections.singletonList(current);
+        }
+        // the children load a native built for this arch
+        final List<JavaHome> javaHomes = JavaHomes.detect().stream()
+            .filter(v -> v.getHardwareArchitecture() == current.getHardwareArchitecture())
+            .collect(Collectors.toList());
+        return javaHomes.isEmpty() ? Collections.singletonList(current) : javaHomes;
+    }
+
+    static private String buildChildClasspath(Path workDir) throws IOException {
+        final Path testClassesDir = Paths.get(ExtractContentionDemo.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+        final Path testJar = workDir.resolve("test-classes.jar");
+
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(testJar));
+             Stream<Path> files = Files.walk(testClassesDir)) {
+            for (Path file : (Iterable<Path>)files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    jar.putNextEntry(new JarEntry(testClassesDir.relativize(file).toString().replace(File.separatorChar, '/')));
+                    Files.copy(file, jar);
+                    jar.closeEntry();
+                }
+            }
+        }
+
+        // swap the dir of test classes for the jar of them
+        final List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            entries.add(Paths.get(entry).toAbsolutePath().equals(testClassesDir.toAbsolutePath()) ? testJar.toAbsolutePath().toString() : entry);
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    static private List<Result> round(Path roundDir, String classpath, List<JavaHome> javaHomes, int processes) throws Exception {
+        final Path extractDir = roundDir.resolve("extract");
+        final Path readyDir = roundDir.resolve("ready");
+        final Path goFile = roundDir.resolve("go");
+        Files.createDirectories(extractDir);
+        Files.createDirectories(readyDir);
+
+        final List<Process> children = new ArrayList<>();
+        final List<Path> logFiles = new ArrayList<>();
+        for (int i = 0; i < processes; i++) {
+            final JavaHome javaHome = javaHomes.get(i % javaHomes.size());
+            final Path logFile = roundDir.resolve("child-" + i + ".log");
+            final ProcessBuilder pb = new ProcessBuilder(
+                javaHome.getJavaExe().toString(),
+                "-cp", classpath,
+                "-D" + Options.SYSPROP_EXTRACT_DIR + "=" + extractDir.toAbsolutePath(),
+                ExtractContentionDemo.class.getName(), "child", readyDir.toAbsolutePath().toString(), goFile.toAbsolutePath().toString());
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(logFile.toFile());
+            children.add(pb.start());
+            logFiles.add(logFile);
+        }
+
+        // release them all at once, once they're all up
+        final long readyDeadline = System.currentTimeMillis() + READY_TIMEOUT_MILLIS;
+        while (countFiles(readyDir) < processes && System.currentTimeMillis() < readyDeadline) {
+            Thread.sleep(10L);
+        }
+        Files.createFile(goFile);
+
+        final List<Result> results = new ArrayList<>();
+        for (int i = 0; i < processes; i++) {
+            final int exitValue = children.get(i).waitFor();
+            results.add(Result.parse(logFiles.get(i), exitValue));
+        }
+        return results;
+    }
+
+    static private void summarize(List<Result> results) {
+        final List<Long> latencies = new ArrayList<>();
+        long extractions = 0;
+        int corrupt = 0;
+        int failed = 0;
+        for (Result result : results) {
+            if (result.status == null || "failed".equals(result.status)) {
+                failed++;
+                log.warn("  failed: {}", result.message);
+                continue;
+            }
+            latencies.add(result.latencyMicros);
+            extractions += result.extractions;
+            if ("corrupt".equals(result.status)) {
+                corrupt++;
+                log.warn("  corrupt: {}", result.message);
+            }
+        }
+        Collections.sort(latencies);
+
+        // every round extracts to a fresh dir, so each native only needs to be extracted once per round
+        final long rounds = results.stream().map(v -> v.logFile.getParent()).distinct().count();
+        final long duplicates = Math.max(0, extractions - rounds * NATIVES.length);
+
+        log.info("  processes: {}, failed: {} ({}%), corrupt: {} ({}%)",
+            results.size(), failed, percent(failed, results.size()), corrupt, percent(corrupt, results.size()));
+        log.info("  extractions: {} (duplicates: {})", extractions, duplicates);
+        if (!latencies.isEmpty()) {
+            log.info("  latency (ms): min {}, p50 {}, p90 {}, p99 {}, max {}",
+                millis(latencies.get(0)), millis(percentile(latencies, 50)), millis(percentile(latencies, 90)),
+                millis(percentile(latencies, 99)), millis(latencies.get(latencies.size() - 1)));
+        }
+    }
+
+    static private long percentile(List<Long> sorted, int percentile) {
+        final int index = (int)Math.ceil(percentile / 100.0d * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    static private String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0d);
+    }
+
+    static private String percent(int count, int total) {
+        return String.format("%.1f", total > 0 ? count * 100.0d / total : 0.0d);
+    }
+
+    static private long countFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    static private void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>)files.sorted(Collections.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    static private class Result {
+
+        final Path logFile;
+        String status;
+        long latencyMicros;
+        long extractions;
+        String message;
+
+        Result(Path logFile) {
+            this.logFile = logFile;
+        }
+
+        static Result parse(Path logFile, int exitValue) throws IOException {
+            final Result result = new Result(logFile);
+            for (String line : Files.readAllLines(logFile, StandardCharsets.UTF_8)) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    // e.g. RESULT ok 123456 2 <message>
+                    final String[] values = line.substring(RESULT_PREFIX.length()).split(" ", 4);
+                    result.status = values[0];
+                    result.latencyMicros = Long.parseLong(values[1]);
+                    result.extractions = Long.parseLong(values[2]);
+                    result.message = values.length > 3 ? values[3] : "";
+                }
+            }
+            if (result.status == null) {
+                result.message = "exit value " + exitValue + " without a result (see " + logFile + ")";
+            }
+            return result;
+        }
+
+    }
+
+    //
+    // child
+    //
+
+    static private int child(Path readyDir, Path goFile) throws Exception {
+        Files.createFile(readyDir.resolve(UUID.randomUUID().toString()));
+        while (!Files.exists(goFile)) {
+            Thread.yield();
+        }
+
+        final long start = System.nanoTime();
+        final File libraryFile;
+        final File jcatFile;
+        try {
+            JNE.loadLibrary("helloj");
+            jcatFile = JNE.requireExecutable("jcat");
+            libraryFile = JNE.findLibrary("helloj");
+        } catch (Throwable t) {
+            System.out.println(RESULT_PREFIX + "failed " + micros(start) + " " + JneStats.getInstance().getExtractions() + " " + t);
+            return 1;
+        }
+        final long latencyMicros = micros(start);
+        final long extractions = JneStats.getInstance().getExtractions();
+
+        // did we get (or use someone else's) partially written or otherwise corrupt natives?
+        String corruption = null;
+        try {
+            if (!"Hello from JNI!".equals(new HelloLib().hi())) {
+                corruption = "helloj returned an unexpected value";
+            } else if (crc32(libraryFile.toPath()) != crc32(resource(libraryFile))) {
+                corruption = "helloj " + libraryFile + " differs from its resource";
+            } else if (crc32(jcatFile.toPath()) != crc32(resource(jcatFile))) {
+                corruption = "jcat " + jcatFile + " differs from its resource";
+            } else {
+                final String output = new ProcessExecutor()
+                    .command(jcatFile.getAbsolutePath())
+                    .redirectInput(new ByteArrayInputStream("contention".getBytes(StandardCharsets.UTF_8)))
+                    .readOutput(true)
+                    .execute()
+                    .outputUTF8();
+                if (!"contention".equals(output)) {
+                    corruption = "jcat output was [" + output + "]";
+                }
+            }
+        } catch (Throwable t) {
+            corruption = t.toString();
+        }
+
+        System.out.println(RESULT_PREFIX + (corruption == null ? "ok" : "corrupt") + " " + latencyMicros + " " + extractions
+            + (corruption != null ? " " + corruption : ""));
+        return corruption == null ? 0 : 2;
+    }
+
+    static private InputStream resource(File file) {
+        for (String resourcePath : NativeTarget.detect().resolveResourcePaths("/jne", file.getName())) {
+            final InputStream input = ExtractContentionDemo.class.getResourceAsStream(resourcePath);
+            if (input != null) {
+                return input;
+            }
+        }
+        return null;
+    }
+
+    static private long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000L;
+    }
+
+    static private long crc32(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return crc32(input);
+        }
+    }
+
+    static private long crc32(InputStream input) throws IOException {
+        if (input == null) {
+            return -1L;
+        }
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[8192];
+        try {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                crc.update(buffer, 0, read);
+            }
+        } finally {
+            input.close();
+        }
+        return crc.getValue();
+    }
+
+}
@@ -20,10 +20,25 @@ package com.fizzed.jne;
  * #L%
  */
 
+import com.fizzed.crux.util.Resources;
+import com.fizzed.crux.util.TemporaryPath;
+import com.fizzed.jne.internal.LinuxMountInfo;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
@@ -111,5 +126,179 @@ public class JNETest {
         assertThat(file, is(not(nullValue())));
         assertThat(file.getName(), is("helloj.dll"));
     }
-    
+
+    @Test
+    public void explainFile() throws IOException {
+        final Options options = new Options()
+            .setOperatingSystem(OperatingSystem.LINUX)
+            .setHardwareArchitecture(HardwareArchitecture.X64)
+            .setAbi(ABI.GNU);
+
+        // should fallback to skipping arch, after trying the arch-specific paths
+        final LookupReport report = JNE.explainFile("resource-linux.txt", options);
+
+        assertThat(report.getType(), is("file"));
+        assertThat(report.getFile(), is(not(nullValue())));
+        assertThat(report.getMatchedResourcePath(), is("/jne/linux/resource-linux.txt"));
+        assertThat(report.getResourcePathsTried().size() > 1, is(true));
+        assertThat(report.getResourcePathsTried().get(report.getResourcePathsTried().size() - 1), is("/jne/linux/resource-linux.txt"));
+        // test resources are plain files rather than in a jar
+        assertThat(report.getCacheDecision(), is(LookupReport.CacheDecision.IN_PLACE));
+        assertThat(report.getPhaseNanos(LookupReport.Phase.RESOLVE) > 0L, is(true));
+        assertThat(report.getTotalNanos() >= report.getPhaseNanos(LookupReport.Phase.RESOLVE), is(true));
+    }
+
+    @Test
+    public void explainLibraryNotFound() {
+        final LookupReport report = JNE.explainLibrary("does-not-exist", new Options()
+            .setOperatingSystem(OperatingSystem.MACOS)
+            .setHardwareArchitecture(HardwareArchitecture.X64)
+            .setAbi(null));
+
+        assertThat(report.getFile(), is(nullValue()));
+        assertThat(report.getMatchedResourcePath(), is(nullValue()));
+        assertThat(report.getResourcePathsTried().isEmpty(), is(false));
+        assertThat(report.getCacheDecision(), is(LookupReport.CacheDecision.NONE));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    public void filterExecutableDirs() throws Exception {
+        final LinuxMountInfo mountInfo = LinuxMountInfo.parse(
+            Resources.file("/fixtures/platforms/rocky9-hardened/cat-procselfmountinfo.txt"));
+
+        final List<File> dirs = JNE.filterExecutableDirs(asList(
+            new File("/tmp"), new File("/var/tmp"), new File("/home/builder/.cache/jne"), new File("/run/user/1000")), mountInfo);
+
+        assertThat(dirs, is(asList(new File("/home/builder/.cache/jne"), new File("/run/user/1000"))));
+    }
+
+    @Test
+    public void filterExecutableDirsWithoutMountInfo() throws Exception {
+        final LinuxMountInfo mountInfo = new LinuxMountInfo(Collections.emptyList());
+
+        final List<File> dirs = JNE.filterExecutableDirs(asList(new File("/tmp"), new File("/var/tmp")), mountInfo);
+
+        assertThat(dirs, is(asList(new File("/tmp"), new File("/var/tmp"))));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    public void filterMemoryBackedDirs() throws Exception {
+        final LinuxMountInfo mountInfo = LinuxMountInfo.parse(
+            Resources.file("/fixtures/platforms/ubuntu2404/cat-procselfmountinfo.txt"));
+
+        final List<File> dirs = JNE.filterMemoryBackedDirs(JNE.filterExecutableDirs(asList(
+            new File("/dev/shm"), new File("/run/lock"), new File("/run/user/1000"), new File("/var/tmp")), mountInfo), mountInfo);
+
+        assertThat(dirs, is(asList(new File("/dev/shm"), new File("/run/user/1000"))));
+    }
+
+    @Test
+    public void reserveMemoryExtractBytes() {
+        assertThat(JNE.reserveMemoryExtractBytes(1L, 0L), is(false));
+        assertThat(JNE.reserveMemoryExtractBytes(0L, Long.MAX_VALUE - 1L), is(true));
+    }
+
+    @Test
+    public void releaseMemoryExtractBytes() {
+        final long used = JNE.getMemoryExtractedBytes();
+
+        assertThat(JNE.reserveMemoryExtractBytes(100L, Long.MAX_VALUE - 1L), is(true));
+        // shared with every copy of JNE in the jvm
+        assertThat(System.getProperty(JNE.SYSPROP_PROCESS_MEMORY_EXTRACT_BYTES), is(Long.toString(used + 100L)));
+
+        JNE.releaseMemoryExtractBytes(100L);
+
+        assertThat(JNE.getMemoryExtractedBytes(), is(used));
+    }
+
+    @Test
+    public void getProcessDirectory() throws Exception {
+        final String key = "jne.test.process.dir";
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            assertThat(JNE.getProcessDirectory(key), is(nullValue()));
+
+            System.setProperty(key, tp.getPath().toString());
+            assertThat(JNE.getProcessDirectory(key), is(tp.getPath().toFile()));
+
+            // published, but no longer exists
+            System.setProperty(key, tp.getPath().resolve("missing").toString());
+            assertThat(JNE.getProcessDirectory(key), is(nullValue()));
+        } finally {
+            System.clearProperty(key);
+        }
+    }
+
+    @Test
+    public void verifyOrExtractToMemoryChargesReplacement() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final URL url1 = createJarWithResource(tp.getPath().resolve("v1.jar"), "lib.bin", 100);
+            final URL url2 = createJarWithResource(tp.getPath().resolve("v2.jar"), "lib.bin", 300);
+            final File memoryDir = tp.getPath().resolve("memory").toFile();
+            memoryDir.mkdirs();
+            final long used = JNE.getMemoryExtractedBytes();
+
+            final File file = JNE.verifyOrExtractToMemory(url1, memoryDir, "lib.bin", "v1", new Options(), System.nanoTime());
+
+            assertThat(file.length(), is(100L));
+            assertThat(JNE.getMemoryExtractedBytes(), is(used + 100L));
+
+            // verified again, nothing more is charged
+            JNE.verifyOrExtractToMemory(url1, memoryDir, "lib.bin", "v1", new Options(), System.nanoTime());
+
+            assertThat(JNE.getMemoryExtractedBytes(), is(used + 100L));
+
+            // the larger replacement must not fit a budget that only the old file fit in
+            final File rejected = JNE.verifyOrExtractToMemory(url2, memoryDir, "lib.bin", "v2", new Options().setMemoryExtractBudget(used + 200L), System.nanoTime());
+
+            assertThat(rejected, is(nullValue()));
+            assertThat(JNE.getMemoryExtractedBytes(), is(used + 100L));
+
+            // but does fit a larger one, and is charged for what it grew by
+            final File replaced = JNE.verifyOrExtractToMemory(url2, memoryDir, "lib.bin", "v2", new Options(), System.nanoTime());
+
+            assertThat(replaced.length(), is(300L));
+            assertThat(JNE.getMemoryExtractedBytes(), is(used + 300L));
+
+            JNE.releaseMemoryExtractBytes(300L);
+        }
+    }
+
+    static private URL createJarWithResource(Path jarFile, String name, int size) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            out.putNextEntry(new JarEntry(name));
+            out.write(new byte[size]);
+            out.closeEntry();
+        }
+        return new URL("jar:" + jarFile.toUri() + "!/" + name);
+    }
+
+    @Test
+    public void getOrExtractSharedFileVerifiesCrc() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("shared.jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jarFile))) {
+                out.putNextEntry(new JarEntry("hello.txt"));
+                out.write("Hello".getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+            final URL url = new URL("jar:" + jarFile.toUri() + "!/hello.txt");
+            final File sharedCacheDir = tp.getPath().resolve("cache").toFile();
+
+            final File sharedFile = JNE.getOrExtractSharedFile(url, "hello.txt", sharedCacheDir);
+
+            assertThat(new String(Files.readAllBytes(sharedFile.toPath()), StandardCharsets.UTF_8), is("Hello"));
+
+            // same size, but not the same content, must be extracted again
+            Files.write(sharedFile.toPath(), "Jello".getBytes(StandardCharsets.UTF_8));
+            sharedFile.setLastModified(sharedFile.lastModified() - 60000L);
+
+            final File sharedFile2 = JNE.getOrExtractSharedFile(url, "hello.txt", sharedCacheDir);
+
+            assertThat(sharedFile2, is(sharedFile));
+            assertThat(new String(Files.readAllBytes(sharedFile2.toPath()), StandardCharsets.UTF_8), is("Hello"));
+        }
+    }
+
 }
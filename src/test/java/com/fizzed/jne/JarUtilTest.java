@@ -0,0 +1,68 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class JarUtilTest {
+
+    @Test
+    public void getManifestVersionNumber() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION, "1.2.3");
+            final File jarFile = new File(tp.getPath().toFile(), "versioned.jar");
+            try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile), manifest)) {
+                jar.putNextEntry(new JarEntry("jne/test.txt"));
+                jar.closeEntry();
+            }
+
+            assertThat(JarUtil.getManifestVersionNumber(jarFile), is("1.2.3"));
+        }
+    }
+
+    @Test
+    public void getManifestVersionNumberWithoutManifest() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final File jarFile = new File(tp.getPath().toFile(), "unversioned.jar");
+            try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+                jar.putNextEntry(new JarEntry("jne/test.txt"));
+                jar.closeEntry();
+            }
+
+            assertThat(JarUtil.getManifestVersionNumber(jarFile), is(nullValue()));
+        }
+    }
+
+}
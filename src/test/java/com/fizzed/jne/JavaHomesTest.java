@@ -28,13 +28,17 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 class JavaHomesTest {
@@ -57,6 +61,41 @@ class JavaHomesTest {
         }
     }
 
+    @Test
+    public void detectFromSearchDirs() throws Exception {
+        final AtomicInteger spawns = new AtomicInteger();
+        final JavaHomes.ReleasePropertiesProvider counting = new JavaHomes.ReleasePropertiesProvider() {
+            @Override
+            public boolean asFallbackOnly() {
+                return true;
+            }
+
+            @Override
+            public Map<String, String> apply(Path javaHomeDir, Path javaExeFile) throws IOException {
+                spawns.incrementAndGet();
+                return Collections.emptyMap();
+            }
+        };
+
+        final List<JavaHome> javaHomes = JavaHomes.detect(Collections.singletonList(this.mockJdksDir), counting);
+
+        // all but jdk-invalid, jdk-missing-lib and jdk-missing-release (the rest have release files, so nothing is spawned)
+        assertThat(javaHomes.size(), is(13));
+        assertThat(spawns.get(), is(0));
+        for (JavaHome javaHome : javaHomes) {
+            assertThat(javaHome.getDirectory().startsWith(this.mockJdksDir.toRealPath()), is(true));
+        }
+    }
+
+    @Test
+    public void detectFailureStillEnded() throws Exception {
+        final long detects = JneStats.getInstance().getJavaHomesDetects();
+
+        assertThrows(NullPointerException.class, () -> JavaHomes.detect(Collections.singletonList(null), null));
+
+        assertThat(JneStats.getInstance().getJavaHomesDetects(), is(detects + 1L));
+    }
+
     @Test
     public void detectInvalidJdk() throws Exception {
         final Path javaHomeDir = this.mockJdksDir.resolve("jdk-invalid");
@@ -0,0 +1,114 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JneAgentTest {
+
+    @Test
+    public void parseConfig() {
+        JneAgent.Config config;
+
+        config = JneAgent.Config.parse("library:helloj, executable:jcat,file:resource.txt,load=true,threads=3");
+
+        assertThat(config.getEntries(), hasSize(3));
+        assertThat(config.getEntries().get(0).getType(), is(JneAgent.Type.LIBRARY));
+        assertThat(config.getEntries().get(0).getName(), is("helloj"));
+        assertThat(config.getEntries().get(1).getType(), is(JneAgent.Type.EXECUTABLE));
+        assertThat(config.getEntries().get(1).getName(), is("jcat"));
+        assertThat(config.getEntries().get(2).getType(), is(JneAgent.Type.FILE));
+        assertThat(config.getEntries().get(2).getName(), is("resource.txt"));
+        assertThat(config.getListResources(), hasSize(0));
+        assertThat(config.isLoad(), is(true));
+        assertThat(config.getThreads(), is(3));
+
+        // no entries at all uses the default list
+        config = JneAgent.Config.parse(null);
+
+        assertThat(config.getEntries(), hasSize(0));
+        assertThat(config.getListResources().get(0), is(JneAgent.DEFAULT_LIST_RESOURCE));
+        assertThat(config.isLoad(), is(false));
+
+        config = JneAgent.Config.parse("list=fixtures/agent/preload.list,load");
+
+        assertThat(config.getEntries(), hasSize(0));
+        assertThat(config.getListResources().get(0), is("fixtures/agent/preload.list"));
+        assertThat(config.isLoad(), is(true));
+    }
+
+    @Test
+    public void parseInvalidEntry() {
+        assertThrows(IllegalArgumentException.class, () -> JneAgent.Config.parse("helloj"));
+        assertThrows(IllegalArgumentException.class, () -> JneAgent.Config.parse("lib:helloj"));
+        assertThrows(IllegalArgumentException.class, () -> JneAgent.Config.parse("library:"));
+    }
+
+    @Test
+    public void readListResources() throws Exception {
+        final List<JneAgent.Entry> entries = JneAgent.readListResources("fixtures/agent/preload.list");
+
+        assertThat(entries, hasSize(2));
+        assertThat(entries.get(0).getType(), is(JneAgent.Type.LIBRARY));
+        assertThat(entries.get(0).getName(), is("helloj"));
+        assertThat(entries.get(1).getType(), is(JneAgent.Type.EXECUTABLE));
+        assertThat(entries.get(1).getName(), is("jcat"));
+    }
+
+    @Test
+    public void prepare() throws Exception {
+        final int prepared = JneAgent.prepare(JneAgent.Config.parse("list=fixtures/agent/preload.list,file:missing.txt"));
+
+        // the missing file is logged, but doesn't fail the others
+        assertThat(prepared, is(2));
+    }
+
+    @Test
+    public void premainWithoutSlf4j() throws Exception {
+        // e.g. the agent jar was put on the command line w/o its dependencies
+        final URL[] urls = new URL[] {
+            JneAgent.class.getProtectionDomain().getCodeSource().getLocation(),
+        };
+
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+            final Class<?> agentClass = classLoader.loadClass(JneAgent.class.getName());
+
+            // must not throw, or the jvm would abort its startup
+            agentClass.getMethod("premain", String.class).invoke(null, "file:resource.txt");
+
+            final boolean prepared = (Boolean)agentClass.getMethod("awaitPrepared", long.class, TimeUnit.class)
+                .invoke(null, 10L, TimeUnit.SECONDS);
+
+            assertThat(prepared, is(true));
+        }
+    }
+
+}
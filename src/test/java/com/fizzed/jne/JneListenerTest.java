@@ -0,0 +1,122 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JneListenerTest {
+
+    static private class RecordingListener implements JneListener {
+        final List<String> events = new ArrayList<>();
+        File file;
+
+        @Override
+        public void onLookupStart(String type, String name) {
+            this.events.add("start:" + type + ":" + name);
+        }
+
+        @Override
+        public void onLookupEnd(String type, String name, File file, long nanos) {
+            this.events.add("end:" + type + ":" + name);
+            this.file = file;
+        }
+
+        @Override
+        public void onLookupFailure(String type, String name, Throwable error) {
+            this.events.add("failure:" + type + ":" + name + ":" + error.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void optionsListener() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+
+        JNE.findFile("resource.txt", new Options().setListener(listener));
+        JNE.findFile("does-not-exist.txt", new Options().setListener(listener));
+
+        assertThat(listener.events.size(), is(4));
+        assertThat(listener.events.get(0), is("start:file:resource.txt"));
+        assertThat(listener.events.get(1), is("end:file:resource.txt"));
+        assertThat(listener.events.get(3), is("end:file:does-not-exist.txt"));
+        assertThat(listener.file, is(nullValue()));
+    }
+
+    @Test
+    public void failedLookupEnded() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+
+        // a null name fails while resolving its file name
+        assertThrows(NullPointerException.class, () -> JNE.findExecutable(null, new Options().setListener(listener)));
+
+        assertThat(listener.events.size(), is(3));
+        assertThat(listener.events.get(0), is("start:executable:null"));
+        assertThat(listener.events.get(1), is("failure:executable:null:NullPointerException"));
+        assertThat(listener.events.get(2), is("end:executable:null"));
+        assertThat(listener.file, is(nullValue()));
+    }
+
+    @Test
+    public void globalListener() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+
+        JNE.addListener(listener);
+        try {
+            JNE.findFile("resource.txt");
+        } finally {
+            JNE.removeListener(listener);
+        }
+
+        // no longer notified once removed
+        JNE.findFile("resource.txt");
+
+        assertThat(listener.events.size(), is(2));
+        assertThat(listener.file, is(not(nullValue())));
+    }
+
+    @Test
+    public void failingListenerIgnored() throws Exception {
+        final File file = JNE.findFile("resource.txt", new Options().setListener(new JneListener() {
+            @Override
+            public void onLookupEnd(String type, String name, File file, long nanos) {
+                throw new IllegalStateException("oops");
+            }
+        }));
+
+        assertThat(file, is(not(nullValue())));
+    }
+
+    @Test
+    public void noListeners() {
+        assertThat(JneListeners.resolve(null), is(nullValue()));
+        assertThat(JneListeners.resolve(new Options()), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class JneStatsTest {
+
+    @Test
+    public void extractionMillisHistogram() {
+        final JneStats stats = new JneStats();
+
+        stats.extracted(100L, 500_000L);            // 0.5 ms
+        stats.extracted(200L, 5_000_000L);          // 5 ms
+        stats.extracted(300L, 5_000_000_000L);      // 5 s
+
+        assertThat(stats.getExtractions(), is(3L));
+        assertThat(stats.getBytesExtracted(), is(600L));
+        assertThat(stats.getExtractionMillisHistogram().get("<=1ms"), is(1L));
+        assertThat(stats.getExtractionMillisHistogram().get("<=10ms"), is(1L));
+        assertThat(stats.getExtractionMillisHistogram().get("<=100ms"), is(0L));
+        assertThat(stats.getExtractionMillisHistogram().get(">1000ms"), is(1L));
+
+        stats.reset();
+
+        assertThat(stats.getExtractions(), is(0L));
+        assertThat(stats.getExtractionMillisHistogram().get(">1000ms"), is(0L));
+    }
+
+    @Test
+    public void lookups() throws Exception {
+        final long lookups = JneStats.getInstance().getLookups();
+        final long lookupsNotFound = JneStats.getInstance().getLookupsNotFound();
+
+        JNE.findFile("resource.txt");
+        JNE.findFile("does-not-exist.txt");
+
+        assertThat(JneStats.getInstance().getLookups() - lookups, is(2L));
+        assertThat(JneStats.getInstance().getLookupsNotFound() - lookupsNotFound, is(1L));
+    }
+
+    @Test
+    public void register() throws Exception {
+        assertThat(JneStats.register(), is(true));
+        // registering again is a no-op
+        assertThat(JneStats.register(), is(true));
+
+        final JneStats stats = JneStats.getInstance();
+        stats.loaded("helloj", new File("libhelloj.so").getAbsolutePath());
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = JneStats.getObjectName();
+
+        assertThat(server.getAttribute(objectName, "Lookups"), is(stats.getLookups()));
+        final TabularData loadedLibraries = (TabularData)server.getAttribute(objectName, "LoadedLibraries");
+        assertThat(loadedLibraries.get(new Object[] { "helloj" }).get("value"), is(new File("libhelloj.so").getAbsolutePath()));
+    }
+
+    @Test
+    public void registerPerClassLoader() throws Exception {
+        assertThat(JneStats.register(), is(true));
+
+        // e.g. another app in the same container w/ its own copy of JNE
+        final URL[] urls = new URL[] {
+            JneStats.class.getProtectionDomain().getCodeSource().getLocation(),
+            LoggerFactory.class.getProtectionDomain().getCodeSource().getLocation(),
+        };
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+            final Class<?> statsClass = classLoader.loadClass(JneStats.class.getName());
+            final ObjectName otherObjectName = (ObjectName)statsClass.getMethod("getObjectName").invoke(null);
+
+            assertThat(otherObjectName, is(not(JneStats.getObjectName())));
+            assertThat(statsClass.getMethod("register").invoke(null), is(true));
+
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertThat(server.isRegistered(otherObjectName), is(true));
+            assertThat(server.isRegistered(JneStats.getObjectName()), is(true));
+
+            // so the classloader can be released
+            assertThat(statsClass.getMethod("unregister").invoke(null), is(true));
+            assertThat(server.isRegistered(otherObjectName), is(false));
+            assertThat(server.isRegistered(JneStats.getObjectName()), is(true));
+        }
+    }
+
+    @Test
+    public void extractDirBytesCached() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final JneStats stats = new JneStats();
+            stats.extractDir(tp.getPath().toFile());
+            Files.write(tp.getPath().resolve("a.bin"), new byte[100]);
+
+            assertThat(stats.getExtractDirBytes(), is(100L));
+
+            // not walked again on every read
+            Files.write(tp.getPath().resolve("b.bin"), new byte[50]);
+
+            assertThat(stats.getExtractDirBytes(), is(100L));
+        }
+    }
+
+}
@@ -22,14 +22,26 @@ package com.fizzed.jne;
 
 import helloj.HelloLib;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zeroturnaround.exec.ProcessExecutor;
 
 import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -57,5 +69,102 @@ public class LibTest {
 
         assertThat(s, is("Hello from JNI!"));
     }
-    
+
+    @Test
+    public void loadLibraryFromMemory() throws Exception {
+        // on java < 22 (or from a plain file resource) this must cleanly fallback to the regular way
+        JNE.loadLibrary("helloj", new Options().setLoadFromMemory(true));
+
+        HelloLib helloLib = new HelloLib();
+        final String s = helloLib.hi();
+
+        assertThat(s, is("Hello from JNI!"));
+    }
+
+    @Test
+    public void loadLibraryInAnotherClassLoader() throws Exception {
+        // the library is first loaded by this classloader
+        LibLoader.loadLibrary();
+
+        // e.g. the app after a hot redeploy, with its own copy of JNE and the same library file
+        final URL[] urls = new URL[] {
+            JNE.class.getProtectionDomain().getCodeSource().getLocation(),
+            HelloLib.class.getProtectionDomain().getCodeSource().getLocation(),
+            LoggerFactory.class.getProtectionDomain().getCodeSource().getLocation(),
+        };
+
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+            final Class<?> jneClass = classLoader.loadClass(JNE.class.getName());
+            assertThat(jneClass, is(not(JNE.class)));
+
+            jneClass.getMethod("loadLibrary", String.class).invoke(null, "helloj");
+            // already loaded by this classloader (from a copy that may no longer exist)
+            jneClass.getMethod("loadLibrary", String.class).invoke(null, "helloj");
+
+            final Class<?> helloLibClass = classLoader.loadClass(HelloLib.class.getName());
+            final Object helloLib = helloLibClass.getConstructor().newInstance();
+            final String s = (String)helloLibClass.getMethod("hi").invoke(helloLib);
+
+            assertThat(s, is("Hello from JNI!"));
+        }
+    }
+
+    @Test @EnabledOnOs(OS.LINUX) @EnabledIfSystemProperty(named = "java.specification.version", matches = "2[2-9]|[3-9][0-9]")
+    public void loadLibraryFromMemoryInJar() throws Exception {
+        // the memfd loader only exists in the java 22 version of a multi-release jar, and only loads from jar urls
+        final Path classesDir = Paths.get(JNE.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final Path testClassesDir = Paths.get(HelloLib.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final Path jarFile = Files.createTempFile("jne-memory", ".jar");
+        try {
+            final Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            manifest.getMainAttributes().put(new Attributes.Name("Multi-Release"), "true");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jarFile), manifest)) {
+                addToJar(out, classesDir, classesDir);
+                addToJar(out, testClassesDir, testClassesDir.resolve("jne"));
+            }
+
+            final URL[] urls = new URL[] {
+                jarFile.toUri().toURL(),
+                testClassesDir.toUri().toURL(),
+                LoggerFactory.class.getProtectionDomain().getCodeSource().getLocation(),
+            };
+
+            try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+                final Class<?> jneClass = classLoader.loadClass(JNE.class.getName());
+                final Class<?> optionsClass = classLoader.loadClass(Options.class.getName());
+
+                // loaded twice, the second time is already loaded (the same memfd is not loaded again)
+                for (int i = 0; i < 2; i++) {
+                    final Object options = optionsClass.getConstructor().newInstance();
+                    optionsClass.getMethod("setLoadFromMemory", boolean.class).invoke(options, true);
+                    final Object report = jneClass.getMethod("explainLoadLibrary", String.class, optionsClass).invoke(null, "helloj", options);
+                    final Object cacheDecision = report.getClass().getMethod("getCacheDecision").invoke(report);
+
+                    assertThat(cacheDecision.toString(), is("MEMORY"));
+                }
+
+                final Class<?> helloLibClass = classLoader.loadClass(HelloLib.class.getName());
+                final Object helloLib = helloLibClass.getConstructor().newInstance();
+                final String s = (String)helloLibClass.getMethod("hi").invoke(helloLib);
+
+                assertThat(s, is("Hello from JNI!"));
+            }
+        } finally {
+            Files.deleteIfExists(jarFile);
+        }
+    }
+
+    static private void addToJar(JarOutputStream out, Path baseDir, Path dir) throws Exception {
+        final List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            out.putNextEntry(new JarEntry(baseDir.relativize(file).toString().replace('\\', '/')));
+            Files.copy(file, out);
+            out.closeEntry();
+        }
+    }
+
 }
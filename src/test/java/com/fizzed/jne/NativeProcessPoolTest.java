@@ -0,0 +1,198 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// cat echoes whatever we write to it (and is unbuffered on its output, unlike our jcat test executable)
+@EnabledOnOs({ OS.LINUX, OS.MAC })
+class NativeProcessPoolTest {
+
+    static private NativeProcessPool catPool() {
+        return new NativeProcessPool(new File("/bin/cat"));
+    }
+
+    @Test
+    public void request() throws Exception {
+        try (NativeProcessPool pool = catPool().setMaxSize(2)) {
+            assertThat(pool.request("hello"), is("hello"));
+            assertThat(pool.request("world"), is("world"));
+
+            // the same warm process was reused
+            assertThat(pool.getTotalCount(), is(1));
+            assertThat(pool.getIdleCount(), is(1));
+        }
+    }
+
+    @Test
+    public void frames() throws Exception {
+        try (NativeProcessPool pool = catPool()) {
+            final NativeProcessPool.NativeProcess process = pool.borrow(1, TimeUnit.SECONDS);
+            try {
+                final byte[] frame = "line1\nline2\n".getBytes(StandardCharsets.UTF_8);
+                process.writeFrame(frame);
+                assertThat(process.readFrame(), is(frame));
+            } finally {
+                pool.release(process);
+            }
+        }
+    }
+
+    @Test
+    public void deadProcessReplaced() throws Exception {
+        try (NativeProcessPool pool = catPool().setMaxSize(1)) {
+            final NativeProcessPool.NativeProcess process1 = pool.borrow(1, TimeUnit.SECONDS);
+            pool.release(process1);
+
+            process1.getProcess().destroy();
+            process1.getProcess().waitFor();
+
+            final NativeProcessPool.NativeProcess process2 = pool.borrow(1, TimeUnit.SECONDS);
+            try {
+                assertThat(process2, is(not(sameInstance(process1))));
+                assertThat(process2.isAlive(), is(true));
+                assertThat(pool.getTotalCount(), is(1));
+            } finally {
+                pool.release(process2);
+            }
+        }
+    }
+
+    @Test
+    public void borrowTimeout() throws Exception {
+        try (NativeProcessPool pool = catPool().setMaxSize(1)) {
+            final NativeProcessPool.NativeProcess process = pool.borrow(1, TimeUnit.SECONDS);
+            try {
+                assertThrows(TimeoutException.class, () -> pool.borrow(50, TimeUnit.MILLISECONDS));
+            } finally {
+                pool.release(process);
+            }
+        }
+    }
+
+    @Test
+    public void requestBorrowTimeout() throws Exception {
+        try (NativeProcessPool pool = catPool().setMaxSize(1).setBorrowTimeoutMillis(50L)) {
+            final NativeProcessPool.NativeProcess process = pool.borrow(1, TimeUnit.SECONDS);
+            try {
+                final long start = System.currentTimeMillis();
+
+                assertThrows(TimeoutException.class, () -> pool.request("hello"));
+
+                assertThat(System.currentTimeMillis() - start < 10000L, is(true));
+            } finally {
+                pool.release(process);
+            }
+        }
+    }
+
+    @Test
+    public void requestFailureNotReused() throws Exception {
+        try (NativeProcessPool pool = catPool()) {
+            assertThat(pool.request("hello"), is("hello"));
+
+            // fails mid exchange, so the process may be out of sync
+            assertThrows(NullPointerException.class, () -> pool.requestFrame(null));
+
+            assertThat(pool.getTotalCount(), is(0));
+        }
+    }
+
+    @Test
+    public void idleEviction() throws Exception {
+        try (NativeProcessPool pool = catPool().setIdleTimeoutMillis(20L)) {
+            pool.request("hello");
+            assertThat(pool.getTotalCount(), is(1));
+
+            Thread.sleep(200L);
+
+            assertThat(pool.getTotalCount(), is(0));
+        }
+    }
+
+    @Test
+    public void minIdleKeptWarm() throws Exception {
+        try (NativeProcessPool pool = catPool().setMaxSize(4).setIdleTimeoutMillis(20L).setMinIdle(2)) {
+            pool.start();
+
+            Thread.sleep(200L);
+
+            assertThat(pool.getIdleCount(), is(2));
+            assertThat(pool.getTotalCount(), is(2));
+        }
+    }
+
+    @Test
+    public void requestReadTimeout() throws Exception {
+        // reads whatever we write to it, but never answers
+        try (NativeProcessPool pool = new NativeProcessPool(new File("/bin/sh"), "-c", "cat > /dev/null").setReadTimeoutMillis(200L)) {
+            final long start = System.currentTimeMillis();
+
+            assertThrows(TimeoutException.class, () -> pool.request("hello"));
+
+            assertThat(System.currentTimeMillis() - start < 10000L, is(true));
+
+            // the hung process was killed (in the background), rather than returned to the pool
+            Thread.sleep(200L);
+
+            assertThat(pool.getTotalCount(), is(0));
+            assertThat(pool.getIdleCount(), is(0));
+        }
+    }
+
+    @Test
+    public void requestFrameTooLarge() throws Exception {
+        try (NativeProcessPool pool = catPool().setMaxFrameSize(8)) {
+            assertThat(pool.requestFrame("12345678".getBytes(StandardCharsets.UTF_8)), is("12345678".getBytes(StandardCharsets.UTF_8)));
+
+            assertThrows(IOException.class, () -> pool.requestFrame("123456789".getBytes(StandardCharsets.UTF_8)));
+
+            // the process is out of sync, so its not reused
+            assertThat(pool.getTotalCount(), is(0));
+        }
+    }
+
+    @Test
+    public void evictAfterCloseDoesNotSpawn() throws Exception {
+        final NativeProcessPool pool = catPool().setMinIdle(1);
+        pool.close();
+
+        pool.evict();
+
+        assertThat(pool.getTotalCount(), is(0));
+        assertThat(pool.getIdleCount(), is(0));
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@EnabledOnOs({ OS.LINUX, OS.MAC })
+class NativeStreamRunnerTest {
+
+    static private byte[] randomBytes(int size) {
+        final byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void runFileToFile() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final byte[] data = randomBytes(3 * 1024 * 1024 + 17);
+            final File input = new File(tp.getPath().toFile(), "input.bin");
+            final File output = new File(tp.getPath().toFile(), "output.bin");
+            Files.write(input.toPath(), data);
+
+            final int exitValue = new NativeStreamRunner(new File("/bin/cat"))
+                .setInput(input)
+                .setOutput(output)
+                .run();
+
+            assertThat(exitValue, is(0));
+            assertThat(Files.readAllBytes(output.toPath()), is(data));
+        }
+    }
+
+    @Test
+    public void runChannels() throws Exception {
+        // much larger than a pipe buffer, so both sides must be pumped at the same time
+        final byte[] data = randomBytes(8 * 1024 * 1024 + 3);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final int exitValue = new NativeStreamRunner(new File("/bin/cat"))
+            .run(Channels.newChannel(new ByteArrayInputStream(data)), Channels.newChannel(out));
+
+        assertThat(exitValue, is(0));
+        assertThat(out.toByteArray(), is(data));
+    }
+
+    @Test
+    public void runFileToChannel() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final byte[] data = randomBytes(1024 * 1024);
+            final File input = new File(tp.getPath().toFile(), "input.bin");
+            Files.write(input.toPath(), data);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            final int exitValue = new NativeStreamRunner(new File("/bin/cat"))
+                .setInput(input)
+                .run(null, Channels.newChannel(out));
+
+            assertThat(exitValue, is(0));
+            assertThat(out.toByteArray(), is(data));
+        }
+    }
+
+    @Test
+    public void runChannelToFile() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            // only stdin is pumped, so its pumped on this thread
+            final byte[] data = randomBytes(1024 * 1024 + 5);
+            final File output = new File(tp.getPath().toFile(), "output.bin");
+
+            final int exitValue = new NativeStreamRunner(new File("/bin/cat"))
+                .setOutput(output)
+                .run(Channels.newChannel(new ByteArrayInputStream(data)), null);
+
+            assertThat(exitValue, is(0));
+            assertThat(Files.readAllBytes(output.toPath()), is(data));
+        }
+    }
+
+    @Test
+    public void runChannelsConflictWithFiles() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final File file = new File(tp.getPath().toFile(), "file.bin");
+            Files.write(file.toPath(), randomBytes(10));
+
+            assertThrows(IllegalArgumentException.class, () -> new NativeStreamRunner(new File("/bin/cat"))
+                .setInput(file)
+                .run(Channels.newChannel(new ByteArrayInputStream(new byte[1])), null));
+
+            assertThrows(IllegalArgumentException.class, () -> new NativeStreamRunner(new File("/bin/cat"))
+                .setOutput(file)
+                .run(null, Channels.newChannel(new ByteArrayOutputStream())));
+        }
+    }
+
+    @Test
+    public void runExitValue() throws Exception {
+        final int exitValue = new NativeStreamRunner(new File("/bin/sh"), "-c", "exit 3")
+            .run();
+
+        assertThat(exitValue, is(3));
+    }
+
+}
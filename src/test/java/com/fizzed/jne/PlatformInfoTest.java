@@ -21,6 +21,7 @@ package com.fizzed.jne;
  */
 
 import com.fizzed.crux.util.Resources;
+import com.fizzed.jne.internal.SystemExecutor;
 import com.fizzed.jne.internal.SystemExecutorFixture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledOnOs;
@@ -29,8 +30,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.*;
@@ -498,4 +503,161 @@ public class PlatformInfoTest {
         assertThat(platformInfo.getLibCVersion(), is(nullValue()));
     }
 
-}
\ No newline at end of file
+    //
+    // Probe Execution Tests
+    //
+
+    @Test
+    public void detectSequentialProbesSameAsConcurrent() throws Exception {
+        for (String platform : asList("ubuntu2404", "alpine315", "freebsd13", "macos15-arm64", "omnios25", "netbsd10")) {
+            final Path dir = Resources.file("/fixtures/platforms/" + platform + "/exec-uname-a.txt").getParent();
+            final SystemExecutorFixture fixtureExecutor = new SystemExecutorFixture(dir);
+
+            final PlatformInfo concurrent = PlatformInfo.detect(fixtureExecutor, PlatformInfo.Detect.ALL);
+            final PlatformInfo sequential = PlatformInfo.detect(fixtureExecutor, Runnable::run, PlatformInfo.Detect.ALL);
+
+            assertThat(platform, sequential.getOperatingSystem(), is(concurrent.getOperatingSystem()));
+            assertThat(platform, sequential.getHardwareArchitecture(), is(concurrent.getHardwareArchitecture()));
+            assertThat(platform, sequential.getName(), is(concurrent.getName()));
+            assertThat(platform, sequential.getDisplayName(), is(concurrent.getDisplayName()));
+            assertThat(platform, sequential.getVersion(), is(concurrent.getVersion()));
+            assertThat(platform, sequential.getKernelVersion(), is(concurrent.getKernelVersion()));
+            assertThat(platform, sequential.getUname(), is(concurrent.getUname()));
+            assertThat(platform, sequential.getLibC(), is(concurrent.getLibC()));
+            assertThat(platform, sequential.getLibCVersion(), is(concurrent.getLibCVersion()));
+        }
+    }
+
+    @Test
+    public void detectRunsProbesConcurrently() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2404/exec-uname-a.txt").getParent();
+        final SystemExecutorFixture fixtureExecutor = new SystemExecutorFixture(dir);
+
+        // every probe is slow (like over ssh), so /etc/os-release and ldd should be in flight at the same time
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final SystemExecutor slowExecutor = new SystemExecutor() {
+            @Override
+            public String catFile(String file) throws Exception {
+                return this.slowly(() -> fixtureExecutor.catFile(file));
+            }
+
+            @Override
+            public String execProcess(List<Integer> exitValues, String... command) throws Exception {
+                return this.slowly(() -> fixtureExecutor.execProcess(exitValues, command));
+            }
+
+            private String slowly(Callable<String> callable) throws Exception {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(250L);
+                    return callable.call();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        };
+
+        final PlatformInfo platformInfo = PlatformInfo.detect(slowExecutor, PlatformInfo.Detect.ALL);
+
+        assertThat(platformInfo.getName(), is("Ubuntu"));
+        assertThat(platformInfo.getLibC(), is(LibC.GLIBC));
+        assertThat(maxInFlight.get(), is(2));
+    }
+
+    //
+    // Process-free Linux Tests (only /proc and other files, no 'uname -a' or 'ldd' fixtures)
+    //
+
+    @Test
+    public void ubuntu2404Proc() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2404-proc/cat-procsyskernelostype.txt").getParent();
+        final ExecCountingExecutor systemExecutor = new ExecCountingExecutor(new SystemExecutorFixture(dir));
+
+        final PlatformInfo platformInfo = PlatformInfo.detect(systemExecutor, PlatformInfo.Detect.ALL);
+
+        assertThat(platformInfo.getOperatingSystem(), is(OperatingSystem.LINUX));
+        assertThat(platformInfo.getHardwareArchitecture(), is(HardwareArchitecture.X64));
+        assertThat(platformInfo.getName(), is("Ubuntu"));
+        assertThat(platformInfo.getDisplayName(), is("Ubuntu 24.04.3 LTS (Noble Numbat)"));
+        assertThat(platformInfo.getVersion(), is(SemanticVersion.parse("24.04")));
+        assertThat(platformInfo.getKernelVersion(), is(SemanticVersion.parse("6.8.0.87")));
+        assertThat(platformInfo.getUname(), is("Linux bmh-build-x64-ubuntu24-1 6.8.0-87-generic #88-Ubuntu SMP PREEMPT_DYNAMIC Sat Oct 11 09:28:41 UTC 2025 x86_64 GNU/Linux"));
+        assertThat(platformInfo.getLibC(), is(LibC.GLIBC));
+        assertThat(platformInfo.getLibCVersion(), is(SemanticVersion.parse("2.39")));
+        assertThat(systemExecutor.execs.get(), is(0));
+    }
+
+    @Test
+    public void alpine315Proc() throws Exception {
+        // no /proc/sys/kernel/arch on this kernel, so the arch is from 'uname -m' (the only exec)
+        final Path dir = Resources.file("/fixtures/platforms/alpine315-proc/cat-procsyskernelostype.txt").getParent();
+        final ExecCountingExecutor systemExecutor = new ExecCountingExecutor(new SystemExecutorFixture(dir));
+
+        final PlatformInfo platformInfo = PlatformInfo.detect(systemExecutor, PlatformInfo.Detect.ALL);
+
+        assertThat(platformInfo.getOperatingSystem(), is(OperatingSystem.LINUX));
+        assertThat(platformInfo.getHardwareArchitecture(), is(HardwareArchitecture.X64));
+        assertThat(platformInfo.getName(), is("Alpine Linux"));
+        assertThat(platformInfo.getDisplayName(), is("Alpine Linux v3.15"));
+        assertThat(platformInfo.getVersion(), is(SemanticVersion.parse("3.15.11")));
+        assertThat(platformInfo.getKernelVersion(), is(SemanticVersion.parse("5.15.140")));
+        assertThat(platformInfo.getUname(), is("Linux bmh-build-x64-alpine315-1 5.15.140-0-virt #1-Alpine SMP Wed, 29 Nov 2023 21:47:33 +0000 x86_64 Linux"));
+        assertThat(platformInfo.getLibC(), is(LibC.MUSL));
+        assertThat(platformInfo.getLibCVersion(), is(SemanticVersion.parse("1.2.2")));
+        assertThat(systemExecutor.execs.get(), is(1));
+    }
+
+    @Test
+    public void remoteSkipsProc() throws Exception {
+        // e.g. over ssh, where each file read is a process of its own, 'uname -a' and 'ldd' are cheaper
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2510/exec-uname-a.txt").getParent();
+        final SystemExecutorFixture fixtureExecutor = new SystemExecutorFixture(dir);
+        final List<String> reads = new ArrayList<>();
+
+        final PlatformInfo platformInfo = PlatformInfo.detect(new SystemExecutor() {
+            @Override
+            public boolean isFileReadCheap() {
+                return false;
+            }
+
+            @Override
+            public String catFile(String file) throws Exception {
+                reads.add(file);
+                return fixtureExecutor.catFile(file);
+            }
+
+            @Override
+            public String execProcess(List<Integer> exitValues, String... command) throws Exception {
+                return fixtureExecutor.execProcess(exitValues, command);
+            }
+        }, PlatformInfo.Detect.ALL);
+
+        assertThat(platformInfo.getUname(), is("Linux bmh-jjlauer-4 6.17.0-6-generic #6-Ubuntu SMP PREEMPT_DYNAMIC Tue Oct  7 13:34:17 UTC 2025 x86_64 GNU/Linux"));
+        assertThat(platformInfo.getLibCVersion(), is(SemanticVersion.parse("2.42")));
+        assertThat(reads.stream().anyMatch(f -> f.startsWith("/proc")), is(false));
+    }
+
+    static private class ExecCountingExecutor implements SystemExecutor {
+
+        private final SystemExecutor systemExecutor;
+        private final AtomicInteger execs = new AtomicInteger();
+
+        public ExecCountingExecutor(SystemExecutor systemExecutor) {
+            this.systemExecutor = systemExecutor;
+        }
+
+        @Override
+        public String catFile(String file) throws Exception {
+            return this.systemExecutor.catFile(file);
+        }
+
+        @Override
+        public String execProcess(List<Integer> exitValues, String... command) throws Exception {
+            this.execs.incrementAndGet();
+            return this.systemExecutor.execProcess(exitValues, command);
+        }
+
+    }
+
+}
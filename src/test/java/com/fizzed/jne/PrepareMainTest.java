@@ -0,0 +1,106 @@
+package com.fizzed.jne;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import com.fizzed.jne.internal.PreparedManifest;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrepareMainTest {
+
+    @Test
+    public void prepareAndFindPrepared() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final File dir = tp.getPath().toFile();
+
+            // prepare for a target other than the one we're running on
+            PrepareMain.prepare(dir, NativeTarget.fromJneTarget("linux-arm64"), asList(
+                JneAgent.Entry.parse("library:helloj"),
+                JneAgent.Entry.parse("executable:jcat"),
+                JneAgent.Entry.parse("file:resource-linux.txt")));
+
+            final PreparedManifest manifest = PreparedManifest.load(dir);
+
+            assertThat(manifest.getTarget(), is("linux-arm64"));
+            assertThat(manifest.find("library", "helloj"), is(new File(dir, "libhelloj.so")));
+            assertThat(manifest.find("executable", "jcat"), is(new File(dir, "jcat")));
+            assertThat(manifest.find("file", "resource-linux.txt"), is(new File(dir, "resource-linux.txt")));
+            assertThat(new File(dir, "jcat").canExecute(), is(true));
+
+            // the runtime trusts the manifest completely (as long as its for the same target)
+            final Options options = new Options()
+                .setOperatingSystem(OperatingSystem.LINUX)
+                .setHardwareArchitecture(HardwareArchitecture.ARM64)
+                .setAbi(ABI.GNU)
+                .setPreparedDir(dir);
+
+            assertThat(JNE.findLibrary("helloj", options), is(new File(dir, "libhelloj.so")));
+            assertThat(JNE.findExecutable("jcat", options), is(new File(dir, "jcat")));
+            assertThat(JNE.findFile("resource-linux.txt", options), is(new File(dir, "resource-linux.txt")));
+
+            // not prepared, so found the regular way
+            assertThat(JNE.findFile("does-not-exist.txt", options), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void findPreparedForOtherTarget() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final File dir = tp.getPath().resolve("prepared").toFile();
+
+            PrepareMain.prepare(dir, NativeTarget.fromJneTarget("linux-arm64"), asList(
+                JneAgent.Entry.parse("file:resource-linux.txt")));
+
+            // e.g. an image built for arm64 running on x64, so the manifest is ignored
+            final Options options = new Options()
+                .setOperatingSystem(OperatingSystem.LINUX)
+                .setHardwareArchitecture(HardwareArchitecture.X64)
+                .setAbi(ABI.GNU)
+                .setPreparedDir(dir);
+
+            final LookupReport report = JNE.explainFile("resource-linux.txt", options);
+
+            assertThat(report.getCacheDecision(), is(not(LookupReport.CacheDecision.PREPARED)));
+            assertThat(report.getFile(), is(not(nullValue())));
+            assertThat(report.getFile(), is(not(new File(dir, "resource-linux.txt"))));
+        }
+    }
+
+    @Test
+    public void prepareMissing() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            assertThrows(ResourceNotFoundException.class, () -> {
+                PrepareMain.prepare(tp.getPath().toFile(), NativeTarget.fromJneTarget("linux-x64"), asList(
+                    JneAgent.Entry.parse("library:does-not-exist")));
+            });
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import com.fizzed.jne.OperatingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.fizzed.jne.internal.Utils.readFileToString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class FileMaterializerTest {
+
+    @Test
+    public void hardLink() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path source = tp.getPath().resolve("source.txt");
+            final Path target = tp.getPath().resolve("target.txt");
+            Files.write(source, "Hello".getBytes(StandardCharsets.UTF_8));
+
+            final FileMaterializer.Method method = new FileMaterializer(OperatingSystem.LINUX)
+                .materialize(source, target);
+
+            assertThat(method, is(FileMaterializer.Method.HARDLINK));
+            assertThat(Files.isSameFile(source, target), is(true));
+            assertThat(readFileToString(target), is("Hello"));
+        }
+    }
+
+    @Test
+    public void copyWhenLinksDisabled() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path source = tp.getPath().resolve("source.txt");
+            final Path target = tp.getPath().resolve("target.txt");
+            Files.write(source, "Hello".getBytes(StandardCharsets.UTF_8));
+
+            final FileMaterializer.Method method = new FileMaterializer(OperatingSystem.LINUX)
+                .setHardLinkEnabled(false)
+                .setReflinkEnabled(false)
+                .materialize(source, target);
+
+            assertThat(method, is(FileMaterializer.Method.COPY));
+            assertThat(Files.isSameFile(source, target), is(false));
+            assertThat(readFileToString(target), is("Hello"));
+        }
+    }
+
+    @Test
+    public void replacesExistingTarget() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path source = tp.getPath().resolve("source.txt");
+            final Path target = tp.getPath().resolve("target.txt");
+            Files.write(source, "Hello".getBytes(StandardCharsets.UTF_8));
+            Files.write(target, "Stale".getBytes(StandardCharsets.UTF_8));
+
+            new FileMaterializer(OperatingSystem.LINUX)
+                .materialize(source, target);
+
+            assertThat(readFileToString(target), is("Hello"));
+        }
+    }
+
+    @Test
+    public void reflinkProbedOncePerDirs() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path source = tp.getPath().resolve("source.txt");
+            Files.write(source, "Hello".getBytes(StandardCharsets.UTF_8));
+
+            final FileMaterializer materializer = new FileMaterializer(OperatingSystem.LINUX)
+                .setHardLinkEnabled(false);
+
+            assertThat(FileMaterializer.isReflinkSupported(source, tp.getPath().resolve("target1.txt")), is(nullValue()));
+
+            final FileMaterializer.Method method1 = materializer.materialize(source, tp.getPath().resolve("target1.txt"));
+            final Boolean supported = FileMaterializer.isReflinkSupported(source, tp.getPath().resolve("target2.txt"));
+
+            assertThat(supported, is(not(nullValue())));
+            assertThat(method1, is(supported ? FileMaterializer.Method.REFLINK : FileMaterializer.Method.COPY));
+
+            // whatever the filesystem supports, the same method is used for the same dirs
+            final FileMaterializer.Method method2 = materializer.materialize(source, tp.getPath().resolve("target2.txt"));
+
+            assertThat(method2, is(method1));
+            assertThat(readFileToString(tp.getPath().resolve("target2.txt")), is("Hello"));
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import com.fizzed.jne.LibC;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 class LibCsTest {
@@ -114,4 +115,45 @@ class LibCsTest {
         assertThat(result.getPath(), is("/lib/ld-musl-x86_64.so.1"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void mapsPathUbuntu2404() throws Exception {
+        String content = Resources.stringUTF8("/fixtures/platforms/ubuntu2404-proc/cat-procselfmaps.txt");
+
+        final LibCs.PathResult result = LibCs.parseMapsPath(content);
+
+        assertThat(result.getLibC(), is(LibC.GLIBC));
+        assertThat(result.getPath(), is("/usr/lib/x86_64-linux-gnu/libc.so.6"));
+    }
+
+    @Test
+    public void mapsPathAlpine315() throws Exception {
+        String content = Resources.stringUTF8("/fixtures/platforms/alpine315-proc/cat-procselfmaps.txt");
+
+        final LibCs.PathResult result = LibCs.parseMapsPath(content);
+
+        assertThat(result.getLibC(), is(LibC.MUSL));
+        assertThat(result.getPath(), is("/lib/ld-musl-x86_64.so.1"));
+    }
+
+    @Test
+    public void mapsPathNone() throws Exception {
+        assertThat(LibCs.parseMapsPath("7ffd4a3c5000-7ffd4a3e6000 rw-p 00000000 00:00 0    [stack]\n"), is(nullValue()));
+        assertThat(LibCs.parseMapsPath(null), is(nullValue()));
+    }
+
+    @Test
+    public void fileVersion() throws Exception {
+        assertThat(LibCs.parseFileVersion("/lib/x86_64-linux-gnu/libc-2.27.so"), is("2.27"));
+        assertThat(LibCs.parseFileVersion("/usr/lib/x86_64-linux-gnu/libc.so.6"), is(nullValue()));
+    }
+
+    @Test
+    public void binaryVersionUbuntu2404() throws Exception {
+        String content = Resources.stringUTF8("/fixtures/platforms/ubuntu2404-proc/cat-usrlibx8664linuxgnulibcso6.txt");
+
+        final String version = LibCs.parseBinaryVersion(content);
+
+        assertThat(version, is("2.39"));
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.Resources;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class LinuxMountInfoTest {
+
+    @Test
+    public void ubuntu2404() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2404/cat-procselfmountinfo.txt").getParent();
+
+        final LinuxMountInfo mountInfo = LinuxMountInfo.detect(new SystemExecutorFixture(dir));
+
+        assertThat(mountInfo, is(not(nullValue())));
+        assertThat(mountInfo.getEntries().size(), is(12));
+
+        LinuxMountInfo.Entry entry = mountInfo.findEntry(Paths.get("/tmp"));
+        assertThat(entry.getMountPoint(), is("/"));
+        assertThat(entry.getFilesystemType(), is("ext4"));
+        assertThat(entry.getSource(), is("/dev/nvme0n1p2"));
+        assertThat(entry.isNoExec(), is(false));
+        assertThat(entry.isReadOnly(), is(false));
+
+        entry = mountInfo.findEntry(Paths.get("/dev/shm/jne.1234"));
+        assertThat(entry.getMountPoint(), is("/dev/shm"));
+        assertThat(entry.getFilesystemType(), is("tmpfs"));
+        assertThat(entry.isNoExec(), is(false));
+
+        // /run is noexec, but the user runtime dir mounted under it is not
+        entry = mountInfo.findEntry(Paths.get("/run/lock"));
+        assertThat(entry.isNoExec(), is(true));
+        entry = mountInfo.findEntry(Paths.get("/run/user/1000/jne"));
+        assertThat(entry.getMountPoint(), is("/run/user/1000"));
+        assertThat(entry.isNoExec(), is(false));
+
+        // only a mount point match on a path boundary
+        entry = mountInfo.findEntry(Paths.get("/running"));
+        assertThat(entry.getMountPoint(), is("/"));
+
+        // escaped spaces
+        entry = mountInfo.findEntry(Paths.get("/mnt/shared data/libs"));
+        assertThat(entry.getMountPoint(), is("/mnt/shared data"));
+        assertThat(entry.getFilesystemType(), is("fuse.sshfs"));
+    }
+
+    @Test
+    public void rocky9Hardened() throws Exception {
+        final Path file = Resources.file("/fixtures/platforms/rocky9-hardened/cat-procselfmountinfo.txt");
+
+        final LinuxMountInfo mountInfo = LinuxMountInfo.parse(file);
+
+        assertThat(mountInfo.findEntry(Paths.get("/tmp/jne.1234")).isNoExec(), is(true));
+        assertThat(mountInfo.findEntry(Paths.get("/var/tmp")).isNoExec(), is(true));
+        assertThat(mountInfo.findEntry(Paths.get("/var/cache/app")).isNoExec(), is(false));
+        assertThat(mountInfo.findEntry(Paths.get("/dev/shm")).isNoExec(), is(true));
+        assertThat(mountInfo.findEntry(Paths.get("/home/builder/.cache/jne")).isNoExec(), is(false));
+        assertThat(mountInfo.findEntry(Paths.get("/run/user/1000")).isNoExec(), is(false));
+        assertThat(mountInfo.findEntry(Paths.get("/run/user/1000")).getSuperOptions().contains("uid=1000"), is(true));
+
+        // memory-backed filesystems
+        assertThat(mountInfo.findEntry(Paths.get("/dev/shm")).isMemoryBacked(), is(true));
+        assertThat(mountInfo.findEntry(Paths.get("/run/user/1000")).isMemoryBacked(), is(true));
+        assertThat(mountInfo.findEntry(Paths.get("/tmp")).isMemoryBacked(), is(false));
+    }
+
+    @Test
+    public void lastMountOfSameMountPointWins() {
+        final LinuxMountInfo mountInfo = LinuxMountInfo.parse(
+            "26 25 0:24 / /dev/shm rw,relatime - tmpfs tmpfs rw,size=6158152k\n" +
+            "28 1 254:0 / / rw,relatime - ext4 /dev/vda rw,discard\n" +
+            "31 26 0:27 / /dev/shm rw,noexec,relatime - tmpfs tmpfs rw,size=6158152k\n");
+
+        assertThat(mountInfo.findEntry(Paths.get("/dev/shm")).isNoExec(), is(true));
+    }
+
+    @Test
+    public void parseSkipsInvalidLines() {
+        final LinuxMountInfo mountInfo = LinuxMountInfo.parse("garbage\n\n28 1 254:0 / / rw,relatime - ext4 /dev/vda rw\n");
+
+        assertThat(mountInfo.getEntries().size(), is(1));
+        assertThat(mountInfo.getEntries().get(0).getMountOptions().contains("relatime"), is(true));
+    }
+
+    @Test
+    public void unescape() {
+        assertThat(LinuxMountInfo.unescape("/mnt/a\\040b"), is("/mnt/a b"));
+        assertThat(LinuxMountInfo.unescape("/mnt/a\\134b"), is("/mnt/a\\b"));
+        assertThat(LinuxMountInfo.unescape("/mnt/a\\0"), is("/mnt/a\\0"));
+        assertThat(LinuxMountInfo.unescape("/mnt/plain"), is("/mnt/plain"));
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.Resources;
+import com.fizzed.jne.LibC;
+import com.fizzed.jne.SemanticVersion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LinuxProcTest {
+
+    @Test
+    public void readUnameUbuntu2404() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2404-proc/cat-procsyskernelostype.txt").getParent();
+
+        final String uname = LinuxProc.readUname(new SystemExecutorFixture(dir), Runnable::run);
+
+        assertThat(uname, is("Linux bmh-build-x64-ubuntu24-1 6.8.0-87-generic #88-Ubuntu SMP PREEMPT_DYNAMIC Sat Oct 11 09:28:41 UTC 2025 x86_64 GNU/Linux"));
+    }
+
+    @Test
+    public void readUnameWithoutArch() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/alpine315-proc/cat-procsyskernelostype.txt").getParent();
+
+        final String uname = LinuxProc.readUname(new SystemExecutorFixture(dir), Runnable::run);
+
+        assertThat(uname, is("Linux bmh-build-x64-alpine315-1 5.15.140-0-virt #1-Alpine SMP Wed, 29 Nov 2023 21:47:33 +0000 x86_64 Linux"));
+    }
+
+    @Test
+    public void readUnameArmhfJvmOnArm64Kernel() throws Exception {
+        // an older kernel without /proc/sys/kernel/arch, where the jvm's loader is armhf but the kernel is aarch64
+        final Path dir = Resources.file("/fixtures/platforms/debian12-armhf-proc/cat-procsyskernelostype.txt").getParent();
+
+        final String uname = LinuxProc.readUname(new SystemExecutorFixture(dir), Runnable::run);
+
+        assertThat(uname, is("Linux bmh-build-arm64-rpi-1 6.1.0-rpi7-rpi-v8 #1 SMP PREEMPT Debian 1:6.1.63-1+rpt1 (2023-11-24) aarch64 GNU/Linux"));
+    }
+
+    @Test
+    public void readUnameNotLinux() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/freebsd13/exec-uname-a.txt").getParent();
+
+        assertThrows(Exception.class, () -> LinuxProc.readUname(new SystemExecutorFixture(dir), Runnable::run));
+    }
+
+    @Test
+    public void readLibCUbuntu2404() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2404-proc/cat-procsyskernelostype.txt").getParent();
+
+        final LibCResult libCResult = LinuxProc.readLibC(new SystemExecutorFixture(dir));
+
+        assertThat(libCResult.getLibC(), is(LibC.GLIBC));
+        assertThat(libCResult.getVersion(), is(SemanticVersion.parse("2.39")));
+    }
+
+    @Test
+    public void readLibCReadsOnlyReadOnlyData() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/ubuntu2404-proc/cat-procsyskernelostype.txt").getParent();
+        final SystemExecutor fixture = new SystemExecutorFixture(dir);
+        final List<String> reads = new ArrayList<>();
+
+        final LibCResult libCResult = LinuxProc.readLibC(new SystemExecutor() {
+            @Override
+            public String catFile(String file) throws Exception {
+                reads.add(file);
+                return fixture.catFile(file);
+            }
+
+            @Override
+            public String catFile(String file, long offset, int length) throws Exception {
+                reads.add(file + "@" + Long.toHexString(offset) + "+" + Integer.toHexString(length));
+                return fixture.catFile(file);
+            }
+
+            @Override
+            public String execProcess(List<Integer> exitValues, String... command) throws Exception {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        assertThat(libCResult.getVersion(), is(SemanticVersion.parse("2.39")));
+        assertThat(reads, is(asList("/proc/self/maps", "/usr/lib/x86_64-linux-gnu/libc.so.6@1b0000+4f000")));
+    }
+
+    @Test
+    public void readLibCAlpine315() throws Exception {
+        final Path dir = Resources.file("/fixtures/platforms/alpine315-proc/cat-procsyskernelostype.txt").getParent();
+
+        final LibCResult libCResult = LinuxProc.readLibC(new SystemExecutorFixture(dir));
+
+        assertThat(libCResult.getLibC(), is(LibC.MUSL));
+        assertThat(libCResult.getVersion(), is(SemanticVersion.parse("1.2.2")));
+    }
+
+    @Test
+    public void parseOperatingSystem() throws Exception {
+        assertThat(LinuxProc.parseOperatingSystem("7b1f2cc00000-7b1f2cc28000 r--p 00000000 fc:00 1054790    /usr/lib/x86_64-linux-gnu/libc.so.6"), is("GNU/Linux"));
+        assertThat(LinuxProc.parseOperatingSystem("7f6a9fc32000-7f6a9fc46000 r--p 00000000 fd:00 2580    /lib/ld-musl-x86_64.so.1"), is("Linux"));
+        assertThat(LinuxProc.parseOperatingSystem("7ffd4a3c5000-7ffd4a3e6000 rw-p 00000000 00:00 0    [stack]"), is(nullValue()));
+    }
+
+    @Test
+    public void parseReadOnlyDataWindow() throws Exception {
+        final String content = Resources.stringUTF8("/fixtures/platforms/ubuntu2404-proc/cat-procselfmaps.txt");
+
+        final long[] window = LinuxProc.parseReadOnlyDataWindow(content, "/usr/lib/x86_64-linux-gnu/libc.so.6");
+
+        assertThat(window[0], is(0x1b0000L));
+        assertThat(window[1], is(0x4f000L));
+        assertThat(LinuxProc.parseReadOnlyDataWindow(content, "/usr/lib/x86_64-linux-gnu/libfoo.so"), is(nullValue()));
+    }
+
+    @Test
+    public void parseApkVersion() throws Exception {
+        String content = Resources.stringUTF8("/fixtures/platforms/alpine315-proc/cat-libapkdbinstalled.txt");
+
+        assertThat(LinuxProc.parseApkVersion(content, "musl"), is("1.2.2"));
+        assertThat(LinuxProc.parseApkVersion(content, "busybox"), is("1.34.1"));
+        assertThat(LinuxProc.parseApkVersion(content, "glibc"), is(nullValue()));
+    }
+
+}
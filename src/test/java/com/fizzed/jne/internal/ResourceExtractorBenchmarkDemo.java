@@ -0,0 +1,82 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * Rough comparison of the extraction strategies against a large (by default 128 MB) resource stored and deflated
+ * in a jar. e.g. pass "256" as the first arg for a 256 MB resource.
+ */
+class ResourceExtractorBenchmarkDemo {
+    static private final Logger log = LoggerFactory.getLogger(ResourceExtractorBenchmarkDemo.class);
+
+    static public void main(String[] args) throws Exception {
+        final int sizeInMb = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+        final int iterations = 5;
+
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            log.info("Creating jar with {} MB stored & deflated entries...", sizeInMb);
+            ResourceExtractorTest.writeJar(jarFile, ResourceExtractorTest.randomBytes(sizeInMb * 1024 * 1024));
+
+            final File target = tp.getPath().resolve("extracted.bin").toFile();
+
+            for (String name : new String[] { "stored.bin", "deflated.bin" }) {
+                final URL url = ResourceExtractorTest.jarUrl(jarFile, "jne/linux/x64/" + name);
+
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    legacyExtract(url, target);
+                    final long legacyMillis = (System.nanoTime() - start) / 1000000L;
+
+                    start = System.nanoTime();
+                    final ResourceExtractor.Method method = ResourceExtractor.extract(url, target);
+                    final long extractorMillis = (System.nanoTime() - start) / 1000000L;
+
+                    log.info("{}: legacy 8K buffered stream {} ms vs {} {} ms", name, legacyMillis, method, extractorMillis);
+                }
+            }
+        }
+    }
+
+    // how JNE.extractTo used to work
+    static private void legacyExtract(URL url, File file) throws Exception {
+        try (InputStream in = url.openStream(); OutputStream out = new BufferedOutputStream(new FileOutputStream(file, false))) {
+            int len;
+            byte[] buffer = new byte[8192];
+            while ((len = in.read(buffer)) > -1) {
+                out.write(buffer, 0, len);
+            }
+        }
+    }
+
+}
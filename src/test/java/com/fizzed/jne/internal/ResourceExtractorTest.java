@@ -0,0 +1,210 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.crux.util.TemporaryPath;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ResourceExtractorTest {
+
+    static byte[] randomBytes(int size) {
+        final byte[] bytes = new byte[size];
+        new Random(1L).nextBytes(bytes);
+        return bytes;
+    }
+
+    static void writeJar(Path jarFile, byte[] data) throws IOException {
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jarFile.toFile()))) {
+            final CRC32 crc = new CRC32();
+            crc.update(data);
+
+            final JarEntry stored = new JarEntry("jne/linux/x64/stored.bin");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(data.length);
+            stored.setCompressedSize(data.length);
+            stored.setCrc(crc.getValue());
+            jos.putNextEntry(stored);
+            jos.write(data);
+            jos.closeEntry();
+
+            final JarEntry deflated = new JarEntry("jne/linux/x64/deflated.bin");
+            deflated.setMethod(ZipEntry.DEFLATED);
+            jos.putNextEntry(deflated);
+            jos.write(data);
+            jos.closeEntry();
+        }
+    }
+
+    static URL jarUrl(Path jarFile, String name) throws IOException {
+        return new URL("jar:" + jarFile.toUri().toURL() + "!/" + name);
+    }
+
+    @Test
+    public void extractStoredAndDeflated() throws Exception {
+        // bigger than the reusable buffer
+        final byte[] data = randomBytes(1024 * 1024 + 13);
+
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            writeJar(jarFile, data);
+
+            final File storedFile = tp.getPath().resolve("stored.bin").toFile();
+            final ResourceExtractor.Method storedMethod = ResourceExtractor.extract(jarUrl(jarFile, "jne/linux/x64/stored.bin"), storedFile);
+
+            assertThat(storedMethod, is(ResourceExtractor.Method.TRANSFER));
+            assertThat(Files.readAllBytes(storedFile.toPath()), is(data));
+
+            final File deflatedFile = tp.getPath().resolve("deflated.bin").toFile();
+            final ResourceExtractor.Method deflatedMethod = ResourceExtractor.extract(jarUrl(jarFile, "jne/linux/x64/deflated.bin"), deflatedFile);
+
+            assertThat(deflatedMethod, is(ResourceExtractor.Method.STREAM));
+            assertThat(Files.readAllBytes(deflatedFile.toPath()), is(data));
+        }
+    }
+
+    @Test
+    public void extractTruncatesExistingFile() throws Exception {
+        final byte[] data = randomBytes(100);
+
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            writeJar(jarFile, data);
+
+            final File file = tp.getPath().resolve("deflated.bin").toFile();
+            Files.write(file.toPath(), randomBytes(5000));
+
+            ResourceExtractor.extract(jarUrl(jarFile, "jne/linux/x64/deflated.bin"), file);
+
+            assertThat(Files.readAllBytes(file.toPath()), is(data));
+        }
+    }
+
+    @Test
+    public void findEntryDataOffset() throws Exception {
+        final byte[] data = randomBytes(64);
+
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            writeJar(jarFile, data);
+
+            final long offset = ResourceExtractor.findEntryDataOffset(jarFile.toFile(), "jne/linux/x64/stored.bin");
+            final byte[] jarBytes = Files.readAllBytes(jarFile);
+
+            assertThat(jarBytes[(int)offset], is(data[0]));
+            assertThat(jarBytes[(int)offset + 63], is(data[63]));
+            assertThat(ResourceExtractor.findEntryDataOffset(jarFile.toFile(), "jne/linux/x64/missing.bin"), is(-1L));
+        }
+    }
+
+    @Test
+    public void findEntryDataOffsetAfterJarChanged() throws Exception {
+        final byte[] data = randomBytes(64);
+
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jarFile.toFile()))) {
+                jos.putNextEntry(new JarEntry("jne/linux/x64/stored.bin"));
+                jos.write(data);
+                jos.closeEntry();
+            }
+
+            // deflated entries are never transferred directly
+            assertThat(ResourceExtractor.findEntryDataOffset(jarFile.toFile(), "jne/linux/x64/stored.bin"), is(-1L));
+
+            // e.g. the jar was rebuilt, so the cached index of it must not be used
+            writeJar(jarFile, data);
+            jarFile.toFile().setLastModified(jarFile.toFile().lastModified() + 60000L);
+
+            final long offset = ResourceExtractor.findEntryDataOffset(jarFile.toFile(), "jne/linux/x64/stored.bin");
+            final byte[] jarBytes = Files.readAllBytes(jarFile);
+
+            assertThat(jarBytes[(int)offset], is(data[0]));
+            assertThat(jarBytes[(int)offset + 63], is(data[63]));
+        }
+    }
+
+    @Test
+    public void findEntryDataOffsetKeepsRecentJars() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            // e.g. an app server that redeploys to a new path each time
+            for (int i = 0; i < 40; i++) {
+                final Path jarFile = tp.getPath().resolve("natives-" + i + ".jar");
+                writeJar(jarFile, randomBytes(1));
+                ResourceExtractor.findEntryDataOffset(jarFile.toFile(), "jne/linux/x64/stored.bin");
+            }
+
+            assertThat(ResourceExtractor.JAR_INDEXES.size(), is(32));
+            assertThat(ResourceExtractor.JAR_INDEXES.containsKey(tp.getPath().resolve("natives-39.jar").toFile().getAbsolutePath()), is(true));
+            assertThat(ResourceExtractor.JAR_INDEXES.containsKey(tp.getPath().resolve("natives-0.jar").toFile().getAbsolutePath()), is(false));
+        }
+    }
+
+    @Test
+    public void getLocalJarFile() throws Exception {
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            writeJar(jarFile, randomBytes(1));
+
+            assertThat(ResourceExtractor.getLocalJarFile(jarUrl(jarFile, "jne/linux/x64/stored.bin")), is(jarFile.toFile()));
+            // nested jars (e.g. spring boot) cannot be read directly
+            assertThat(ResourceExtractor.getLocalJarFile(new URL("jar:" + jarFile.toUri().toURL() + "!/BOOT-INF/lib/inner.jar!/a.bin")), is((File)null));
+        }
+    }
+
+    @Test
+    public void isSameContent() throws Exception {
+        final byte[] data = randomBytes(1000);
+
+        try (TemporaryPath tp = TemporaryPath.tempDirectory()) {
+            final Path jarFile = tp.getPath().resolve("natives.jar");
+            writeJar(jarFile, data);
+            final URL url = jarUrl(jarFile, "jne/linux/x64/deflated.bin");
+
+            final File file = tp.getPath().resolve("deflated.bin").toFile();
+            assertThat(ResourceExtractor.isSameContent(url, file), is(false));
+
+            ResourceExtractor.extract(url, file);
+            assertThat(ResourceExtractor.isSameContent(url, file), is(true));
+
+            // same size, different bytes
+            final byte[] different = data.clone();
+            different[500]++;
+            Files.write(file.toPath(), different);
+            assertThat(ResourceExtractor.isSameContent(url, file), is(false));
+        }
+    }
+
+}
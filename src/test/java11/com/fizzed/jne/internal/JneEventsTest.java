@@ -0,0 +1,114 @@
+package com.fizzed.jne.internal;
+
+/*-
+ * #%L
+ * jne
+ * %%
+ * Copyright (C) 2016 - 2025 Fizzed, Inc
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fizzed.jne.JNE;
+import helloj.HelloLib;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the java 11+ version of JneEvents, which only exists in the multi-release section of the jar (and so isn't
+ * what the rest of the tests run with), by loading JNE in a classloader that puts it first.
+ */
+class JneEventsTest {
+
+    static private URLClassLoader multiReleaseClassLoader() throws Exception {
+        final Path classesDir = Paths.get(JNE.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final URL[] urls = new URL[] {
+            classesDir.resolve("META-INF/versions/11").toUri().toURL(),
+            classesDir.toUri().toURL(),
+            HelloLib.class.getProtectionDomain().getCodeSource().getLocation(),
+            LoggerFactory.class.getProtectionDomain().getCodeSource().getLocation(),
+        };
+        return new URLClassLoader(urls, null);
+    }
+
+    @Test
+    public void notRecording() throws Exception {
+        try (URLClassLoader classLoader = multiReleaseClassLoader()) {
+            final Class<?> eventsClass = classLoader.loadClass(JneEvents.class.getName());
+
+            assertThat(eventsClass.getMethod("isSupported").invoke(null), is(true));
+            // nothing is allocated unless recording
+            assertThat(eventsClass.getMethod("beginLookup").invoke(null), is(nullValue()));
+            assertThat(eventsClass.getMethod("beginExtract").invoke(null), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void recording() throws Exception {
+        final Path recordingFile = Files.createTempFile("jne-events", ".jfr");
+        try (URLClassLoader classLoader = multiReleaseClassLoader()) {
+            final Class<?> jneClass = classLoader.loadClass(JNE.class.getName());
+
+            try (Recording recording = new Recording()) {
+                recording.enable("com.fizzed.jne.Lookup").withoutThreshold();
+                recording.start();
+
+                final File file = (File)jneClass.getMethod("findFile", String.class).invoke(null, "resource-linux.txt");
+                assertThat(file.getName(), is("resource-linux.txt"));
+
+                // a lookup that fails is still committed
+                final InvocationTargetException e = assertThrows(InvocationTargetException.class,
+                    () -> jneClass.getMethod("findExecutable", String.class).invoke(null, (String)null));
+                assertThat(e.getCause(), instanceOf(NullPointerException.class));
+
+                recording.stop();
+                recording.dump(recordingFile);
+            }
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals("com.fizzed.jne.Lookup"))
+                .collect(Collectors.toList());
+
+            assertThat(events, hasSize(2));
+            assertThat(events.get(0).getString("type"), is("file"));
+            assertThat(events.get(0).getString("name"), is("resource-linux.txt"));
+            assertThat(events.get(0).getBoolean("found"), is(true));
+            assertThat(events.get(1).getString("type"), is("executable"));
+            assertThat(events.get(1).getBoolean("found"), is(false));
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+}